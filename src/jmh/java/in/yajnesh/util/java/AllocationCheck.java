@@ -0,0 +1,496 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Allocation regression checks, bytes allocated per call of the public methods of {@link JUtil}, {@link NumberUtil} and {@link TimeUtil}
+ * against a budget per method.
+ * <p>
+ * Each call is warmed up first, so that it runs compiled as in production, then measured in rounds with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, the best round counting.
+ * Most budgets are zero. A method returning a new String is allowed that String, measured on the running JVM as a copy of the
+ * expected text, so that the budgets hold with and without compact strings.
+ * </p>
+ * <p>
+ * Not covered, as they allocate by design once per use: startClock and stopClock (a thread), registerEmptinessCheck (a lookup table),
+ * compileIgnoreCase and compileKeywords (the matcher). The clock is started though, to check its readers.
+ * </p>
+ * Run with <code>./gradlew allocationCheck</code>, part of <code>./gradlew check</code>.
+ * <code>-Pallocation.include=regex</code> runs only the methods matching the regex.
+ *
+ * @author Yajnesh T
+ */
+public final class AllocationCheck {
+
+    private static final int WARMUP_CALLS = 50_000;
+    private static final int ROUNDS = 5;
+    private static final int CALLS = 10_000;
+
+    /**
+     * bytes per call forgiven, for the odd allocation of the measurement itself
+     */
+    private static final double TOLERANCE = 0.5;
+
+    /**
+     * Besides the result array, a payload below the parallel threshold takes the parser (24 bytes), its column (24) and
+     * its single chunk (56), whatever its size. Object sizes as laid out with compressed oops, the default below 32 GB of heap
+     */
+    private static final long DELIMITED_PARSER_BYTES = 24 + 24 + 56;
+
+    //results are written here, so that the calls are not optimized away
+    static Object sink;
+    static long sinkLong;
+
+    static final String TEXT = "  Hello World  ";
+    static final StringBuilder TEXT_BUILDER = new StringBuilder(TEXT);
+    static final String NUMBER = "  1234567  ";
+    static final String DECIMAL = "12345.6789";
+    static final String NUMBERS = "12,345,-678,90";
+    static final char[] DECIMAL_CHARS = DECIMAL.toCharArray();
+    static final byte[] DECIMAL_BYTES = DECIMAL.getBytes();
+    static final String[] ARRAY = {"a", "b", "c", "d"};
+    static final List<String> LIST = new ArrayList<>(Arrays.asList(ARRAY));
+    static final List<String> LINKED_LIST = new LinkedList<>(LIST);
+    static final Iterable<String> ITERABLE = new ArrayDeque<>(LIST);
+    static final CharSequence CHAR_SEQUENCE = new StringBuilderView();
+    static final Map<String, String> MAP = new HashMap<>();
+    static final Object[] VARARGS = {TEXT, LIST, MAP, ARRAY, TEXT_BUILDER, 1, 2};
+    static final boolean[] BOOLEANS = {true, false};
+    static final byte[] BYTES = {1, 2};
+    static final char[] CHARS = {'a', 'b'};
+    static final short[] SHORTS = {1, 2};
+    static final int[] INTS = {1, 2};
+    static final long[] LONGS = {1, 2};
+    static final float[] FLOATS = {1, 2};
+    static final double[] DOUBLES = {1, 2};
+    static final StringBuilder SB = new StringBuilder(256);
+    static final char[] CHAR_BUFFER = new char[256];
+    static final byte[] BYTE_BUFFER = new byte[256];
+    static final Writer WRITER = new NullWriter();
+    static final OutputStream OUTPUT_STREAM = new NullOutputStream();
+    static final long EPOCH_MILLIS = 1_700_000_000_123L;
+    static final long DURATION = 93_784_567L;
+    static final String DURATION_TEXT = "1d2h3m4s567ms";
+    static final String ISO_TEXT = "2023-11-14T22:13:20.123456789+05:30";
+    static final byte[] ISO_BYTES = ISO_TEXT.getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        MAP.put("k1", "v1");
+        MAP.put("k2", "v2");
+    }
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long threadId = Thread.currentThread().getId();
+    private final Pattern include;
+    private final List<String> failures = new ArrayList<>();
+    private int checked;
+
+    private AllocationCheck(com.sun.management.ThreadMXBean threads, Pattern include) {
+        this.threads = threads;
+        this.include = include;
+    }
+
+    /**
+     * A call of the method checked, writing its result to a sink
+     */
+    interface Call {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Pattern include = Pattern.compile(args.length > 0 ? args[0] : ".*");
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            System.out.println("Allocation check skipped, this JVM does not measure allocated bytes per thread");
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        AllocationCheck check = new AllocationCheck(threads, include);
+        TimeUtil.startClock(10);
+        try {
+            check.jUtil();
+            check.jUtilPrimitives();
+            check.numberUtil();
+            check.timeUtil();
+        } finally {
+            TimeUtil.stopClock();
+        }
+        System.out.println(check.checked + " methods checked, " + check.failures.size() + " over budget");
+        if (!check.failures.isEmpty()) {
+            for (String failure : check.failures) {
+                System.out.println("  " + failure);
+            }
+            System.exit(1);
+        }
+    }
+
+    private void jUtil() {
+        //walking an Iterable takes an iterator, the streaming stringify takes its writer and an iterator as well
+        long iterator = sizeOf(() -> sink = ITERABLE.iterator());
+        long stringifyList = sizeOf(() -> sink = new Stringifier(WRITER, 1, 1)) + sizeOf(() -> sink = LIST.iterator());
+        long stringifyMap = sizeOf(() -> sink = new Stringifier(WRITER, 1, 1)) + sizeOf(() -> sink = MAP.entrySet().iterator());
+        long utf8Output = sizeOf(() -> {
+            Stringifier.Utf8Output output = new Stringifier.Utf8Output(OUTPUT_STREAM);
+            output.release();
+            sink = output;
+        });
+
+        check("get(T[], int)", 0, () -> sink = JUtil.get(ARRAY, 2));
+        check("get(T[], int, T)", 0, () -> sink = JUtil.get(ARRAY, 9, TEXT));
+        check("get(List, int)", 0, () -> sink = JUtil.get(LIST, 2));
+        check("get(List, int, T)", 0, () -> sink = JUtil.get(LIST, 9, TEXT));
+        check("get(LinkedList, int)", 0, () -> sink = JUtil.get(LINKED_LIST, 2));
+        check("get(Iterable, int)", iterator, () -> sink = JUtil.get(ITERABLE, 2));
+        check("get(Iterable, int, T)", iterator, () -> sink = JUtil.get(ITERABLE, 9, TEXT));
+        check("get(String, int)", 0, () -> sink = JUtil.get(TEXT, 3));
+        check("get(String, int, Character)", 0, () -> sink = JUtil.get(TEXT, 99, 'x'));
+        check("get(CharSequence, int)", 0, () -> sink = JUtil.get(TEXT_BUILDER, 3));
+        check("get(CharSequence, int, Character)", 0, () -> sink = JUtil.get(TEXT_BUILDER, 99, 'x'));
+        check("getFirstItem(Iterable)", iterator, () -> sink = JUtil.getFirstItem(ITERABLE));
+        check("getFirstItem(Iterable, T)", 0, () -> sink = JUtil.getFirstItem(Collections.<String>emptyList(), TEXT));
+        check("getLastItem(T[])", 0, () -> sink = JUtil.getLastItem(ARRAY));
+        check("getLastItem(T[], T)", 0, () -> sink = JUtil.getLastItem(ARRAY, TEXT));
+        check("getLastItem(List)", 0, () -> sink = JUtil.getLastItem(LIST));
+        check("getLastItem(List, T)", 0, () -> sink = JUtil.getLastItem(LINKED_LIST, TEXT));
+        check("getLastItem(Iterable)", 0, () -> sink = JUtil.getLastItem(ITERABLE));
+        check("getLastItem(Iterable, T)", 0, () -> sink = JUtil.getLastItem(ITERABLE, TEXT));
+        check("getLastItem(String)", 0, () -> sink = JUtil.getLastItem("Hello"));
+        check("getLastItem(String, Character)", 0, () -> sink = JUtil.getLastItem(TEXT, 'x'));
+        check("getLastItem(CharSequence)", 0, () -> sink = JUtil.getLastItem(CHAR_SEQUENCE));
+        check("getLastItem(CharSequence, Character)", 0, () -> sink = JUtil.getLastItem(TEXT_BUILDER, 'x'));
+
+        check("isEmpty(T[])", 0, () -> sinkLong += JUtil.isEmpty(ARRAY) ? 1 : 0);
+        check("isEmpty(Collection)", 0, () -> sinkLong += JUtil.isEmpty(LIST) ? 1 : 0);
+        check("isEmpty(String)", 0, () -> sinkLong += JUtil.isEmpty(TEXT) ? 1 : 0);
+        check("isEmpty(CharSequence)", 0, () -> sinkLong += JUtil.isEmpty(TEXT_BUILDER) ? 1 : 0);
+        check("isEmpty(Map)", 0, () -> sinkLong += JUtil.isEmpty(MAP) ? 1 : 0);
+        check("size(Collection)", 0, () -> sinkLong += JUtil.size(LIST));
+        check("size(T[])", 0, () -> sinkLong += JUtil.size(ARRAY));
+        check("size(String)", 0, () -> sinkLong += JUtil.size(TEXT));
+        check("size(CharSequence)", 0, () -> sinkLong += JUtil.size(TEXT_BUILDER));
+
+        check("equals", 0, () -> sinkLong += JUtil.equals(TEXT, NUMBER) ? 1 : 0);
+        check("equalsRelaxed", 0, () -> sinkLong += JUtil.equalsRelaxed(TEXT, " hello world") ? 1 : 0);
+        check("hashCodeRelaxed", 0, () -> sinkLong += JUtil.hashCodeRelaxed(TEXT_BUILDER));
+        check("contains", 0, () -> sinkLong += JUtil.contains(TEXT, "World") ? 1 : 0);
+        check("containsIgnoreCase", 0, () -> sinkLong += JUtil.containsIgnoreCase(TEXT, "WORLD") ? 1 : 0);
+        check("typeCast", 0, () -> sink = JUtil.typeCast(TEXT, String.class));
+
+        checkString("stringify(Collection)", JUtil.stringify(LIST), stringifyList, () -> sink = JUtil.stringify(LIST));
+        checkString("stringify(String, Collection)", JUtil.stringify("list", LIST), stringifyList, () -> sink = JUtil.stringify("list", LIST));
+        checkString("stringify(String, Collection, int, int)", JUtil.stringify("list", LIST, 2, 10), stringifyList,
+                () -> sink = JUtil.stringify("list", LIST, 2, 10));
+        check("stringify(Appendable, String, Collection, int, int)", stringifyList, () -> JUtil.stringify(WRITER, "list", LIST, 2, 10));
+        check("stringify(OutputStream, String, Collection, int, int)", stringifyList + utf8Output, () -> JUtil.stringify(OUTPUT_STREAM, "list", LIST, 2, 10));
+        checkString("stringify(Map)", JUtil.stringify(MAP), stringifyMap, () -> sink = JUtil.stringify(MAP));
+        checkString("stringify(String, Map)", JUtil.stringify("map", MAP), stringifyMap, () -> sink = JUtil.stringify("map", MAP));
+        checkString("stringify(String, Map, int, int)", JUtil.stringify("map", MAP, 1, 10), stringifyMap, () -> sink = JUtil.stringify("map", MAP, 1, 10));
+        check("stringify(Appendable, String, Map, int, int)", stringifyMap, () -> JUtil.stringify(WRITER, "map", MAP, 1, 10));
+        check("stringify(OutputStream, String, Map, int, int)", stringifyMap + utf8Output, () -> JUtil.stringify(OUTPUT_STREAM, "map", MAP, 1, 10));
+
+        check("isAnyEmpty(Object...)", 0, () -> sinkLong += JUtil.isAnyEmpty(VARARGS) ? 1 : 0);
+        check("isAnyEmpty(Object, Object)", 0, () -> sinkLong += JUtil.isAnyEmpty(TEXT, LIST) ? 1 : 0);
+        check("isAnyEmpty(Object, Object, Object)", 0, () -> sinkLong += JUtil.isAnyEmpty(TEXT, LIST, MAP) ? 1 : 0);
+        check("isAnyEmpty(Object x 4)", 0, () -> sinkLong += JUtil.isAnyEmpty(TEXT, LIST, MAP, ARRAY) ? 1 : 0);
+        check("isAnyEmpty(Object x 5)", 0, () -> sinkLong += JUtil.isAnyEmpty(TEXT, LIST, MAP, ARRAY, TEXT_BUILDER) ? 1 : 0);
+        check("isAnyEmpty(Object x 6)", 0, () -> sinkLong += JUtil.isAnyEmpty(TEXT, LIST, MAP, ARRAY, TEXT_BUILDER, INTS) ? 1 : 0);
+        check("isAllEmpty(Object...)", 0, () -> sinkLong += JUtil.isAllEmpty(VARARGS) ? 1 : 0);
+        check("isAllEmpty(Object, Object)", 0, () -> sinkLong += JUtil.isAllEmpty("", LIST) ? 1 : 0);
+        check("isAllEmpty(Object, Object, Object)", 0, () -> sinkLong += JUtil.isAllEmpty("", null, MAP) ? 1 : 0);
+        check("isAllEmpty(Object x 4)", 0, () -> sinkLong += JUtil.isAllEmpty("", null, " ", ARRAY) ? 1 : 0);
+        check("isAllEmpty(Object x 5)", 0, () -> sinkLong += JUtil.isAllEmpty("", null, " ", null, TEXT_BUILDER) ? 1 : 0);
+        check("isAllEmpty(Object x 6)", 0, () -> sinkLong += JUtil.isAllEmpty("", null, " ", null, "", INTS) ? 1 : 0);
+
+        checkString("getString(Object)", TEXT.trim(), 0, () -> sink = JUtil.getString(TEXT));
+        check("getString(Object), trimmed already", 0, () -> sink = JUtil.getString("Hello"));
+        checkString("getStringSafe(Object)", TEXT.trim(), 0, () -> sink = JUtil.getStringSafe(TEXT));
+        StringInterner interner = new StringInterner(64);
+        check("getString(Object, StringInterner)", 0, () -> sink = JUtil.getString(TEXT_BUILDER, interner));
+        check("getStringSafe(Object, StringInterner)", 0, () -> sink = JUtil.getStringSafe(TEXT_BUILDER, interner));
+
+        checkString("safeUrlEncode", "a+b%26c", 0, () -> sink = JUtil.safeUrlEncode("a b&c", "UTF-8"));
+        check("safeUrlEncode, nothing to encode", 0, () -> sink = JUtil.safeUrlEncode("abc", "UTF-8"));
+
+        //a new mutable collection is the point of these, only the empty ones are allocated up front
+        check("emptyMapMutable()", sizeOf(() -> sink = new CompactStringMap()), () -> sink = JUtil.emptyMapMutable());
+        check("emptySetMutable()", sizeOf(() -> sink = new CompactStringSet()), () -> sink = JUtil.emptySetMutable());
+    }
+
+    private void jUtilPrimitives() {
+        check("get(boolean[], int, boolean)", 0, () -> sinkLong += JUtil.get(BOOLEANS, 1, true) ? 1 : 0);
+        check("get(byte[], int, byte)", 0, () -> sinkLong += JUtil.get(BYTES, 1, (byte) 0));
+        check("get(char[], int, char)", 0, () -> sinkLong += JUtil.get(CHARS, 1, 'x'));
+        check("get(short[], int, short)", 0, () -> sinkLong += JUtil.get(SHORTS, 1, (short) 0));
+        check("get(int[], int, int)", 0, () -> sinkLong += JUtil.get(INTS, 1, 0));
+        check("get(long[], int, long)", 0, () -> sinkLong += JUtil.get(LONGS, 1, 0L));
+        check("get(float[], int, float)", 0, () -> sinkLong += (long) JUtil.get(FLOATS, 1, 0f));
+        check("get(double[], int, double)", 0, () -> sinkLong += (long) JUtil.get(DOUBLES, 1, 0d));
+        check("getLastItem(boolean[], boolean)", 0, () -> sinkLong += JUtil.getLastItem(BOOLEANS, true) ? 1 : 0);
+        check("getLastItem(byte[], byte)", 0, () -> sinkLong += JUtil.getLastItem(BYTES, (byte) 0));
+        check("getLastItem(char[], char)", 0, () -> sinkLong += JUtil.getLastItem(CHARS, 'x'));
+        check("getLastItem(short[], short)", 0, () -> sinkLong += JUtil.getLastItem(SHORTS, (short) 0));
+        check("getLastItem(int[], int)", 0, () -> sinkLong += JUtil.getLastItem(INTS, 0));
+        check("getLastItem(long[], long)", 0, () -> sinkLong += JUtil.getLastItem(LONGS, 0L));
+        check("getLastItem(float[], float)", 0, () -> sinkLong += (long) JUtil.getLastItem(FLOATS, 0f));
+        check("getLastItem(double[], double)", 0, () -> sinkLong += (long) JUtil.getLastItem(DOUBLES, 0d));
+        check("size(boolean[])", 0, () -> sinkLong += JUtil.size(BOOLEANS));
+        check("size(byte[])", 0, () -> sinkLong += JUtil.size(BYTES));
+        check("size(char[])", 0, () -> sinkLong += JUtil.size(CHARS));
+        check("size(short[])", 0, () -> sinkLong += JUtil.size(SHORTS));
+        check("size(int[])", 0, () -> sinkLong += JUtil.size(INTS));
+        check("size(long[])", 0, () -> sinkLong += JUtil.size(LONGS));
+        check("size(float[])", 0, () -> sinkLong += JUtil.size(FLOATS));
+        check("size(double[])", 0, () -> sinkLong += JUtil.size(DOUBLES));
+        check("isEmpty(boolean[])", 0, () -> sinkLong += JUtil.isEmpty(BOOLEANS) ? 1 : 0);
+        check("isEmpty(byte[])", 0, () -> sinkLong += JUtil.isEmpty(BYTES) ? 1 : 0);
+        check("isEmpty(char[])", 0, () -> sinkLong += JUtil.isEmpty(CHARS) ? 1 : 0);
+        check("isEmpty(short[])", 0, () -> sinkLong += JUtil.isEmpty(SHORTS) ? 1 : 0);
+        check("isEmpty(int[])", 0, () -> sinkLong += JUtil.isEmpty(INTS) ? 1 : 0);
+        check("isEmpty(long[])", 0, () -> sinkLong += JUtil.isEmpty(LONGS) ? 1 : 0);
+        check("isEmpty(float[])", 0, () -> sinkLong += JUtil.isEmpty(FLOATS) ? 1 : 0);
+        check("isEmpty(double[])", 0, () -> sinkLong += JUtil.isEmpty(DOUBLES) ? 1 : 0);
+    }
+
+    private void numberUtil() {
+        //boxed results, a value outside the small value caches is one box
+        check("getInt", sizeOf(() -> sink = Integer.valueOf(1234567 + (int) (sinkLong & 1))), () -> sink = NumberUtil.getInt(NUMBER));
+        check("getIntSafe", 0, () -> sinkLong += NumberUtil.getIntSafe(NUMBER));
+        check("getLong", sizeOf(() -> sink = Long.valueOf(1234567 + (sinkLong & 1))), () -> sink = NumberUtil.getLong(NUMBER));
+        check("getLongSafe", 0, () -> sinkLong += NumberUtil.getLongSafe(NUMBER));
+        check("getDouble", sizeOf(() -> sink = Double.valueOf(12345.6789 + (sinkLong & 1))), () -> sink = NumberUtil.getDouble(DECIMAL));
+        check("getDoubleSafe", 0, () -> sinkLong += (long) NumberUtil.getDoubleSafe(DECIMAL));
+        check("parseInt", 0, () -> sinkLong += NumberUtil.parseInt(TEXT_BUILDER, 0, 5, -1));
+        check("parseLong", 0, () -> sinkLong += NumberUtil.parseLong(NUMBER, 2, 9, -1));
+        //the array variants parse through a CharSequence view of the array
+        check("parseDouble(CharSequence)", 0, () -> sinkLong += (long) NumberUtil.parseDouble(DECIMAL, 0, DECIMAL.length(), -1));
+        check("parseDouble(char[])", 0, () -> sinkLong += (long) NumberUtil.parseDouble(DECIMAL_CHARS, 0, DECIMAL_CHARS.length, -1));
+        check("parseDouble(byte[])", 0, () -> sinkLong += (long) NumberUtil.parseDouble(DECIMAL_BYTES, 0, DECIMAL_BYTES.length, -1));
+        //the array returned is the point of these, plus a fixed overhead
+        check("parseInts", sizeOf(() -> sink = new int[4]) + DELIMITED_PARSER_BYTES, () -> sink = NumberUtil.parseInts(NUMBERS, ','));
+        check("parseLongs", sizeOf(() -> sink = new long[4]) + DELIMITED_PARSER_BYTES, () -> sink = NumberUtil.parseLongs(NUMBERS, ','));
+        check("parseDoubles", sizeOf(() -> sink = new double[4]) + DELIMITED_PARSER_BYTES, () -> sink = NumberUtil.parseDoubles(NUMBERS, ','));
+        check("checkInt", 0, () -> sinkLong += NumberUtil.checkInt(NUMBER, 2, 9));
+        check("checkLong", 0, () -> sinkLong += NumberUtil.checkLong(NUMBER, 2, 9));
+
+        checkString("formatLong", "-1,234,567", 0, () -> sink = NumberUtil.formatLong(-1234567, 0, ','));
+        check("appendLong", 0, () -> NumberUtil.appendLong(clear(SB), -1234567, 0, ','));
+        check("writeLong(char[])", 0, () -> sinkLong += NumberUtil.writeLong(CHAR_BUFFER, 0, -1234567));
+        check("writeLong(char[], minDigits, groupSeparator)", 0, () -> sinkLong += NumberUtil.writeLong(CHAR_BUFFER, 0, -1234567, 9, ','));
+        check("writeLong(byte[])", 0, () -> sinkLong += NumberUtil.writeLong(BYTE_BUFFER, 0, -1234567));
+        check("writeLong(byte[], minDigits, groupSeparator)", 0, () -> sinkLong += NumberUtil.writeLong(BYTE_BUFFER, 0, -1234567, 9, ','));
+        checkString("formatFixed", "12345.68", 0, () -> sink = NumberUtil.formatFixed(12345.6789, 2));
+        check("appendFixed", 0, () -> NumberUtil.appendFixed(clear(SB), 12345.6789, 2));
+        check("appendFixed(minDigits, groupSeparator)", 0, () -> NumberUtil.appendFixed(clear(SB), 12345.6789, 2, 1, ','));
+        check("writeFixed(char[])", 0, () -> sinkLong += NumberUtil.writeFixed(CHAR_BUFFER, 0, 12345.6789, 2));
+        check("writeFixed(char[], minDigits, groupSeparator)", 0, () -> sinkLong += NumberUtil.writeFixed(CHAR_BUFFER, 0, 12345.6789, 2, 1, ','));
+        check("writeFixed(byte[])", 0, () -> sinkLong += NumberUtil.writeFixed(BYTE_BUFFER, 0, 12345.6789, 2));
+        check("writeFixed(byte[], minDigits, groupSeparator)", 0, () -> sinkLong += NumberUtil.writeFixed(BYTE_BUFFER, 0, 12345.6789, 2, 1, ','));
+    }
+
+    private void timeUtil() {
+        check("getTwoDigitValue", 0, () -> sink = TimeUtil.getTwoDigitValue(7));
+        checkString("getTwoDigitValue, above 99", "123", 0, () -> sink = TimeUtil.getTwoDigitValue(123));
+        check("appendTwoDigits(StringBuilder)", 0, () -> TimeUtil.appendTwoDigits(clear(SB), 7));
+        check("appendTwoDigits(Appendable)", 0, () -> TimeUtil.appendTwoDigits(WRITER, 7));
+        check("writeTwoDigits(char[])", 0, () -> sinkLong += TimeUtil.writeTwoDigits(CHAR_BUFFER, 0, 7));
+        check("writeTwoDigits(byte[])", 0, () -> sinkLong += TimeUtil.writeTwoDigits(BYTE_BUFFER, 0, 7));
+        check("appendTime", 0, () -> TimeUtil.appendTime(clear(SB), EPOCH_MILLIS, true));
+        check("appendIsoDateTime(StringBuilder)", 0, () -> TimeUtil.appendIsoDateTime(clear(SB), EPOCH_MILLIS));
+        check("appendIsoDateTime(Appendable)", 0, () -> TimeUtil.appendIsoDateTime(WRITER, EPOCH_MILLIS));
+        check("writeIsoDateTime(char[])", 0, () -> sinkLong += TimeUtil.writeIsoDateTime(CHAR_BUFFER, 0, EPOCH_MILLIS));
+        check("writeIsoDateTime(byte[])", 0, () -> sinkLong += TimeUtil.writeIsoDateTime(BYTE_BUFFER, 0, EPOCH_MILLIS));
+        checkString("formatIsoDateTime", TimeUtil.formatIsoDateTime(EPOCH_MILLIS), 0, () -> sink = TimeUtil.formatIsoDateTime(EPOCH_MILLIS));
+        check("isClockRunning", 0, () -> sinkLong += TimeUtil.isClockRunning() ? 1 : 0);
+        check("currentTimeMillis", 0, () -> sinkLong += TimeUtil.currentTimeMillis());
+        check("currentIsoDateTime", 0, () -> sink = TimeUtil.currentIsoDateTime());
+        check("appendDuration", 0, () -> TimeUtil.appendDuration(clear(SB), DURATION, TimeUnit.MILLISECONDS));
+        check("writeDuration", 0, () -> sinkLong += TimeUtil.writeDuration(CHAR_BUFFER, 0, DURATION, TimeUnit.MILLISECONDS));
+        checkString("formatDuration", DURATION_TEXT, 0, () -> sink = TimeUtil.formatDuration(DURATION, TimeUnit.MILLISECONDS));
+        check("appendClockDuration", 0, () -> TimeUtil.appendClockDuration(clear(SB), DURATION, true));
+        check("writeClockDuration", 0, () -> sinkLong += TimeUtil.writeClockDuration(CHAR_BUFFER, 0, DURATION, true));
+        check("parseDuration", 0, () -> sinkLong += TimeUtil.parseDuration(DURATION_TEXT, TimeUnit.MILLISECONDS, -1));
+        check("parseDuration(start, end)", 0, () -> sinkLong += TimeUtil.parseDuration(DURATION_TEXT, 2, 8, TimeUnit.MILLISECONDS, -1));
+        check("parseDuration, clock", 0, () -> sinkLong += TimeUtil.parseDuration("1d 02:03:04.567", TimeUnit.MILLISECONDS, -1));
+        check("parseDuration, mm:ss", 0, () -> sinkLong += TimeUtil.parseDuration("03:04.567", TimeUnit.MILLISECONDS, -1));
+        check("parseIsoDateTime", 0, () -> sinkLong += TimeUtil.parseIsoDateTime(ISO_TEXT, -1));
+        check("parseIsoDateTime(start, end)", 0, () -> sinkLong += TimeUtil.parseIsoDateTime(ISO_TEXT, 0, 23, -1));
+        check("parseIsoDateTime(byte[])", 0, () -> sinkLong += TimeUtil.parseIsoDateTime(ISO_BYTES, 0, ISO_BYTES.length, -1));
+        check("parseIsoDateTimeNanos", 0, () -> sinkLong += TimeUtil.parseIsoDateTimeNanos(ISO_TEXT, 0, ISO_TEXT.length(), -1));
+        check("parseIsoDateTimeNanos(byte[])", 0, () -> sinkLong += TimeUtil.parseIsoDateTimeNanos(ISO_BYTES, 0, ISO_BYTES.length, -1));
+    }
+
+    /**
+     * Check a method returning a new String, it may allocate that String and extraBytes more
+     */
+    private void checkString(String method, final String expected, long extraBytes, Call call) {
+        if (!include.matcher(method).find()) {
+            return;
+        }
+        try {
+            call.run();
+        } catch (Exception e) {
+            throw new IllegalStateException(method, e);
+        }
+        if (!expected.equals(sink)) {
+            failures.add(method + ": returned \"" + sink + "\" instead of \"" + expected + "\"");
+            return;
+        }
+        final char[] chars = expected.toCharArray();
+        check(method, sizeOf(() -> sink = new String(chars)) + extraBytes, call);
+    }
+
+    private void check(String method, long budget, Call call) {
+        if (!include.matcher(method).find()) {
+            return;
+        }
+        checked++;
+        double bytes = measure(call);
+        System.out.printf("%-60s %8.1f B/call, budget %d%n", method, bytes, budget);
+        if (bytes > budget + TOLERANCE) {
+            failures.add(String.format("%s: %.1f bytes per call, budget %d", method, bytes, budget));
+        }
+    }
+
+    /**
+     * @return bytes allocated by the call, rounded to the nearest byte, to be used as a budget
+     */
+    private long sizeOf(Call call) {
+        return Math.round(measure(call));
+    }
+
+    /**
+     * @return bytes allocated per call, the least of the rounds
+     */
+    private double measure(Call call) {
+        try {
+            for (int i = 0; i < WARMUP_CALLS; i++) {
+                call.run();
+            }
+            double least = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long before = threads.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < CALLS; i++) {
+                    call.run();
+                }
+                long after = threads.getThreadAllocatedBytes(threadId);
+                least = Math.min(least, (double) (after - before) / CALLS);
+            }
+            return least;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static StringBuilder clear(StringBuilder sb) {
+        sb.setLength(0);
+        return sb;
+    }
+
+    /**
+     * a CharSequence which is neither a String nor a StringBuilder
+     */
+    private static final class StringBuilderView implements CharSequence {
+
+        @Override
+        public int length() {
+            return TEXT_BUILDER.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return TEXT_BUILDER.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return TEXT_BUILDER.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return TEXT_BUILDER.toString();
+        }
+    }
+
+    private static final class NullWriter extends Writer {
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void write(String s, int offset, int length) {
+        }
+
+        @Override
+        public Writer append(CharSequence cs) {
+            return this;
+        }
+
+        @Override
+        public Writer append(CharSequence cs, int start, int end) {
+            return this;
+        }
+
+        @Override
+        public Writer append(char c) {
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class NullOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link CaseInsensitiveMap} and {@link JUtil#equalsRelaxed(Object, Object)}.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline:
+ * a TreeMap of {@link String#CASE_INSENSITIVE_ORDER}, and a HashMap of lower cased, trimmed keys.
+ * The gc profiler shows the copies the baselines make per lookup.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CaseInsensitiveMapBenchmark {
+
+    @Param({"16", "256"})
+    int size;
+
+    String[] keys;
+    String[] lookups;
+    Map<String, String> caseInsensitive;
+    Map<String, String> treeMap;
+    Map<String, String> hashMap;
+    int index;
+
+    @Setup
+    public void setUp() {
+        keys = new String[size];
+        lookups = new String[size];
+        caseInsensitive = new CaseInsensitiveMap<String>(size);
+        treeMap = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        hashMap = new HashMap<String, String>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = "X-Header-Name-" + i;
+            lookups[i] = " x-header-NAME-" + i;
+            caseInsensitive.put(keys[i], "value" + i);
+            treeMap.put(keys[i], "value" + i);
+            hashMap.put(keys[i].toLowerCase(Locale.ROOT), "value" + i);
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        index = index + 1 == size ? 0 : index + 1;
+        return caseInsensitive.get(lookups[index]);
+    }
+
+    @Benchmark
+    public boolean equalsRelaxed() {
+        index = index + 1 == size ? 0 : index + 1;
+        return JUtil.equalsRelaxed(keys[index], lookups[index]);
+    }
+
+    @Benchmark
+    public String jdkGetTreeMap() {
+        index = index + 1 == size ? 0 : index + 1;
+        return treeMap.get(lookups[index].trim());
+    }
+
+    @Benchmark
+    public String jdkGetLowerCased() {
+        index = index + 1 == size ? 0 : index + 1;
+        return hashMap.get(lookups[index].trim().toLowerCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public boolean jdkEqualsRelaxed() {
+        index = index + 1 == size ? 0 : index + 1;
+        return keys[index].trim().equalsIgnoreCase(lookups[index].trim());
+    }
+}
@@ -0,0 +1,109 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link CompactStringMap}, the map handed out by {@link JUtil#emptyMapMutable(int)}.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * The gc profiler shows the bytes allocated per map built.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompactStringMapBenchmark {
+
+    @Param({"4", "16", "256"})
+    int size;
+
+    String[] keys;
+    String[] values;
+    Map<String, String> compact;
+    Map<String, String> hashMap;
+    int index;
+
+    @Setup
+    public void setUp() {
+        keys = new String[size];
+        values = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "attribute." + i;
+            values[i] = "value" + i;
+        }
+        compact = build(JUtil.emptyMapMutable());
+        hashMap = build(new HashMap<String, String>());
+    }
+
+    private Map<String, String> build(Map<String, String> map) {
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, String> build() {
+        return build(JUtil.emptyMapMutable());
+    }
+
+    @Benchmark
+    public Map<String, String> buildPresized() {
+        return build(JUtil.emptyMapMutable(size));
+    }
+
+    @Benchmark
+    public String get() {
+        index = index + 1 == size ? 0 : index + 1;
+        return compact.get(keys[index]);
+    }
+
+    @Benchmark
+    public Map<String, String> jdkBuild() {
+        return build(new HashMap<String, String>());
+    }
+
+    @Benchmark
+    public String jdkGet() {
+        index = index + 1 == size ? 0 : index + 1;
+        return hashMap.get(keys[index]);
+    }
+}
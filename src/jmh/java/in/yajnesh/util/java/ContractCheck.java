@@ -0,0 +1,109 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Behaviour regression checks of the String maps and sets, where they must act as {@link HashMap} and {@link HashSet} do.
+ * <p>
+ * Overwriting the value of a key already present, or adding an element already present, is not a structural modification,
+ * so it must not fail the iterators, whatever the fill of the table. Every size up to a few resizes is tried, as the tables
+ * grow at 6, 12, 24... keys.
+ * </p>
+ * Run with <code>./gradlew contractCheck</code>, part of <code>./gradlew check</code>.
+ *
+ * @author Yajnesh T
+ */
+public final class ContractCheck {
+
+    private static final int MAX_SIZE = 100;
+
+    private final List<String> failures = new ArrayList<>();
+    private int checked;
+
+    public static void main(String[] args) {
+        ContractCheck check = new ContractCheck();
+        for (int size = 0; size <= MAX_SIZE; size++) {
+            check.overwriteWhileIterating("CompactStringMap", new CompactStringMap(), size);
+            check.overwriteWhileIterating("CaseInsensitiveMap", new CaseInsensitiveMap<String>(), size);
+            check.addExistingWhileIterating("CompactStringSet", new CompactStringSet(), size);
+            check.addExistingWhileIterating("CaseInsensitiveSet", new CaseInsensitiveSet(), size);
+        }
+        System.out.println(check.checked + " cases checked, " + check.failures.size() + " failed");
+        if (!check.failures.isEmpty()) {
+            for (String failure : check.failures) {
+                System.out.println("  " + failure);
+            }
+            System.exit(1);
+        }
+    }
+
+    private void overwriteWhileIterating(String name, Map<String, String> map, int size) {
+        checked++;
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put("k" + i, "v" + i);
+            expected.put("k" + i, "w");
+        }
+        try {
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                map.put(entry.getKey(), "w");
+            }
+            for (Iterator<String> it = map.keySet().iterator(); it.hasNext(); ) {
+                String key = it.next();
+                map.put(key, map.get(key));
+            }
+            if (!expected.equals(map)) {
+                failures.add(name + " of " + size + ": " + map + " instead of " + expected);
+            }
+        } catch (ConcurrentModificationException e) {
+            failures.add(name + " of " + size + ": put of an existing key failed the iterator");
+        }
+    }
+
+    private void addExistingWhileIterating(String name, Set<String> set, int size) {
+        checked++;
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            set.add("k" + i);
+            expected.add("k" + i);
+        }
+        try {
+            for (String element : set) {
+                if (set.add(element)) {
+                    failures.add(name + " of " + size + ": " + element + " added twice");
+                }
+            }
+            if (!expected.equals(set)) {
+                failures.add(name + " of " + size + ": " + set + " instead of " + expected);
+            }
+        } catch (ConcurrentModificationException e) {
+            failures.add(name + " of " + size + ": add of an existing element failed the iterator");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link JUtil#isAnyEmpty(Object...)} and {@link JUtil#isAllEmpty(Object...)}, as run on the fields of a request.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * The fixed arity overloads should show no allocation in the gc profiler, unlike the varargs ones.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmptinessBenchmark {
+
+    String name;
+    StringBuilder comment;
+    List<String> tags;
+    Map<String, String> attributes;
+    long[] ids;
+    Object[] fields;
+
+    @Setup
+    public void setUp() {
+        name = "  order-42 ";
+        comment = new StringBuilder("deliver after 6pm");
+        tags = Arrays.asList("priority", "gift");
+        attributes = Collections.singletonMap("channel", "web");
+        ids = new long[]{42};
+        fields = new Object[]{name, comment, tags, attributes, ids};
+    }
+
+    @Benchmark
+    public boolean isAnyEmpty() {
+        return JUtil.isAnyEmpty(name, comment, tags, attributes, ids);
+    }
+
+    @Benchmark
+    public boolean isAnyEmptyVarargs() {
+        //more than 6 objects are passed in an array
+        return JUtil.isAnyEmpty(name, comment, tags, attributes, ids, name, comment);
+    }
+
+    @Benchmark
+    public boolean isAnyEmptyArray() {
+        return JUtil.isAnyEmpty(fields);
+    }
+
+    @Benchmark
+    public boolean isAllEmpty() {
+        return JUtil.isAllEmpty(null, "", tags);
+    }
+
+    @Benchmark
+    public boolean jdkIsAnyEmpty() {
+        return name == null || name.trim().isEmpty() || comment == null || comment.toString().trim().isEmpty()
+                || tags == null || tags.isEmpty() || attributes == null || attributes.isEmpty() || ids == null || ids.length == 0;
+    }
+}
@@ -0,0 +1,82 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+/**
+ * Input shapes shared by the benchmarks
+ *
+ * @author Yajnesh T
+ */
+public final class Inputs {
+
+    private Inputs() {
+    }
+
+    /**
+     * Shapes of text input, used as a JMH {@code @Param}
+     */
+    public enum Text {
+        NULL(null),
+        BLANK("      "),
+        SHORT("  Hello World  "),
+        LONG("  " + repeat("The quick brown fox jumps over the lazy dog. ", 64) + "  "),
+        NON_ASCII_SHORT("  Grüße aus Köln  "),
+        NON_ASCII_LONG("  " + repeat("Größenwahn und Übermut – ĳ ǅ Ω ", 64) + "  ");
+
+        final String value;
+
+        Text(String value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Shapes of numeric input, used as a JMH {@code @Param}
+     */
+    public enum Number {
+        NULL(null),
+        BLANK("   "),
+        SHORT("42"),
+        LONG("1234567890"),
+        NEGATIVE("-98765"),
+        DECIMAL("12345.6789"),
+        EXPONENT("6.02214076E23"),
+        INVALID("12a4"),
+        OVERFLOW("99999999999999999999999");
+
+        final String value;
+
+        Number(String value) {
+            this.value = value;
+        }
+    }
+
+    static String repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder(s.length() * times);
+        for (int i = 0; i < times; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+
+    static StringBuilder toCharSequence(String s) {
+        return s == null ? null : new StringBuilder(s);
+    }
+}
@@ -0,0 +1,106 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the ISO-8601 parsing methods of {@link TimeUtil}, as used to read timestamps of log lines or JSON fields.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IsoDateTimeParseBenchmark {
+
+    private static final int COUNT = 1024;
+
+    /**
+     * milliseconds between consecutive timestamps, a day apart or more defeats the epoch day cache
+     */
+    @Param({"1000", "86400000"})
+    long step;
+
+    String[] texts = new String[COUNT];
+    byte[][] bytes = new byte[COUNT][];
+    int next;
+
+    @Setup
+    public void setUp() {
+        long millis = 1792326896789L;
+        for (int i = 0; i < COUNT; i++) {
+            //offsets vary, as in merged logs of several hosts
+            texts[i] = OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), i % 3 == 0 ? ZoneOffset.UTC : ZoneOffset.ofHoursMinutes(5, 30))
+                    .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+            bytes[i] = texts[i].getBytes(StandardCharsets.US_ASCII);
+            millis += step;
+        }
+    }
+
+    private int nextIndex() {
+        return next = (next + 1) & (COUNT - 1);
+    }
+
+    @Benchmark
+    public long parseIsoDateTime() {
+        return TimeUtil.parseIsoDateTime(texts[nextIndex()], -1);
+    }
+
+    @Benchmark
+    public long parseIsoDateTimeBytes() {
+        byte[] b = bytes[nextIndex()];
+        return TimeUtil.parseIsoDateTime(b, 0, b.length, -1);
+    }
+
+    @Benchmark
+    public long parseIsoDateTimeNanos() {
+        String text = texts[nextIndex()];
+        return TimeUtil.parseIsoDateTimeNanos(text, 0, text.length(), -1);
+    }
+
+    @Benchmark
+    public long jdkOffsetDateTime() {
+        return OffsetDateTime.parse(texts[nextIndex()]).toInstant().toEpochMilli();
+    }
+}
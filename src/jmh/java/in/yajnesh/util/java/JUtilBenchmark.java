@@ -0,0 +1,155 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the String/CharSequence hot paths of {@link JUtil}.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JUtilBenchmark {
+
+    @Param({"NULL", "BLANK", "SHORT", "LONG", "NON_ASCII_SHORT", "NON_ASCII_LONG"})
+    Inputs.Text shape;
+
+    String s;
+    StringBuilder cs;
+    int index;
+    String term;
+    IgnoreCaseMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        s = shape.value;
+        cs = Inputs.toCharSequence(s);
+        index = s == null ? 0 : s.length() / 2;
+        //a term which is not found, so that the whole source is scanned
+        term = "LAZY CAT";
+        matcher = JUtil.compileIgnoreCase(term);
+    }
+
+    @Benchmark
+    public Character get() {
+        return JUtil.get(s, index);
+    }
+
+    @Benchmark
+    public Character getCharSequence() {
+        return JUtil.get(cs, index);
+    }
+
+    @Benchmark
+    public Character getLastItem() {
+        return JUtil.getLastItem(s);
+    }
+
+    @Benchmark
+    public int size() {
+        return JUtil.size(s);
+    }
+
+    @Benchmark
+    public int sizeCharSequence() {
+        return JUtil.size(cs);
+    }
+
+    @Benchmark
+    public boolean isEmpty() {
+        return JUtil.isEmpty(s);
+    }
+
+    @Benchmark
+    public boolean isEmptyCharSequence() {
+        return JUtil.isEmpty(cs);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return JUtil.contains(s, term);
+    }
+
+    @Benchmark
+    public boolean containsIgnoreCase() {
+        return JUtil.containsIgnoreCase(s, term);
+    }
+
+    @Benchmark
+    public boolean compiledContainsIgnoreCase() {
+        return matcher.contains(s);
+    }
+
+    @Benchmark
+    public boolean equalsRelaxed() {
+        return JUtil.equalsRelaxed(s, cs);
+    }
+
+    @Benchmark
+    public String getString() {
+        return JUtil.getString(s);
+    }
+
+    @Benchmark
+    public char jdkGet() {
+        return s != null && index < s.length() ? s.charAt(index) : 0;
+    }
+
+    @Benchmark
+    public int jdkSize() {
+        return s == null ? 0 : s.length();
+    }
+
+    @Benchmark
+    public boolean jdkIsEmpty() {
+        return s == null || s.isEmpty();
+    }
+
+    @Benchmark
+    public boolean jdkContains() {
+        return s != null && s.contains(term);
+    }
+
+    @Benchmark
+    public boolean jdkContainsIgnoreCase() {
+        return s != null && s.toLowerCase().contains(term.toLowerCase());
+    }
+}
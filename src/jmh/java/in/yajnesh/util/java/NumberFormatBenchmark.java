@@ -0,0 +1,103 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the formatting methods of {@link NumberUtil}, as used to write CSV rows or metric lines.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberFormatBenchmark {
+
+    long longValue = 1792326896789L;
+    double doubleValue = 12345.678;
+    StringBuilder sb = new StringBuilder();
+    byte[] bytes = new byte[64];
+
+    @Benchmark
+    public StringBuilder appendLong() {
+        sb.setLength(0);
+        return NumberUtil.appendLong(sb, longValue++, 0, ',');
+    }
+
+    @Benchmark
+    public int writeLongBytes() {
+        return NumberUtil.writeLong(bytes, 0, longValue++);
+    }
+
+    @Benchmark
+    public StringBuilder appendFixed() {
+        sb.setLength(0);
+        doubleValue += 0.001;
+        return NumberUtil.appendFixed(sb, doubleValue, 2);
+    }
+
+    @Benchmark
+    public int writeFixedBytes() {
+        doubleValue += 0.001;
+        return NumberUtil.writeFixed(bytes, 0, doubleValue, 2, 0, ',');
+    }
+
+    @Benchmark
+    public String formatFixed() {
+        doubleValue += 0.001;
+        return NumberUtil.formatFixed(doubleValue, 2);
+    }
+
+    @Benchmark
+    public String jdkFormatLong() {
+        return String.format(Locale.US, "%,d", longValue++);
+    }
+
+    @Benchmark
+    public StringBuilder jdkAppendLong() {
+        sb.setLength(0);
+        return sb.append(longValue++);
+    }
+
+    @Benchmark
+    public String jdkFormatFixed() {
+        doubleValue += 0.001;
+        return String.format(Locale.US, "%.2f", doubleValue);
+    }
+}
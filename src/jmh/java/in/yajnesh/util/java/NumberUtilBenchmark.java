@@ -0,0 +1,119 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link NumberUtil}.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * Invalid shapes are included on purpose, the failure path is usually the expensive one.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberUtilBenchmark {
+
+    @Param({"NULL", "BLANK", "SHORT", "LONG", "NEGATIVE", "DECIMAL", "EXPONENT", "INVALID", "OVERFLOW"})
+    Inputs.Number shape;
+
+    String number;
+
+    @Setup
+    public void setUp() {
+        number = shape.value;
+    }
+
+    @Benchmark
+    public Integer getInt() {
+        return NumberUtil.getInt(number);
+    }
+
+    @Benchmark
+    public int getIntSafe() {
+        return NumberUtil.getIntSafe(number);
+    }
+
+    @Benchmark
+    public Long getLong() {
+        return NumberUtil.getLong(number);
+    }
+
+    @Benchmark
+    public long getLongSafe() {
+        return NumberUtil.getLongSafe(number);
+    }
+
+    @Benchmark
+    public Double getDouble() {
+        return NumberUtil.getDouble(number);
+    }
+
+    @Benchmark
+    public double getDoubleSafe() {
+        return NumberUtil.getDoubleSafe(number);
+    }
+
+    @Benchmark
+    public int jdkParseInt() {
+        try {
+            return number == null ? 0 : Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public long jdkParseLong() {
+        try {
+            return number == null ? 0 : Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public double jdkParseDouble() {
+        try {
+            return number == null ? 0 : Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link NumericFileReader}, summing two columns of a generated CSV file.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * Divide the file size by the score for the throughput.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumericFileReaderBenchmark {
+
+    @Param({"1000000"})
+    int rows;
+
+    File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("numeric", ".csv");
+        Random random = new Random(42);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("id,price\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(random.nextInt(Integer.MAX_VALUE) + "," + random.nextInt(1000000) / 100.0 + "\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Benchmark
+    public double read() throws IOException {
+        return sum(new NumericFileReader(file, ',', true));
+    }
+
+    @Benchmark
+    public double readMemoryMapped() throws IOException {
+        return sum(new NumericFileReader(file, ',', true, NumericFileReader.DEFAULT_WINDOW_SIZE, true));
+    }
+
+    @Benchmark
+    public double jdkBufferedReader() throws IOException {
+        double sum = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                sum += NumberUtil.getLongSafe(fields[0]) + NumberUtil.getDoubleSafe(fields[1]);
+            }
+        }
+        return sum;
+    }
+
+    private static double sum(NumericFileReader reader) throws IOException {
+        final double[] sum = {0};
+        reader.forEachRow(new NumericFileReader.RowVisitor() {
+            @Override
+            public boolean visitRow(long rowIndex, NumericFileReader.Row row) {
+                sum[0] += row.getLong(0, 0) + row.getDouble(1, 0);
+                return true;
+            }
+        });
+        return sum[0];
+    }
+}
@@ -0,0 +1,143 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link OffHeapStringMap}.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * The lookups from a reused StringBuilder or byte range allocate nothing, unlike the HashMap which needs a String key.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OffHeapStringMapBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    String[] keys;
+    byte[][] utf8Keys;
+    OffHeapStringMap offHeap;
+    Map<String, String> hashMap;
+    StringBuilder sb = new StringBuilder();
+    int index;
+
+    @Setup
+    public void setUp() {
+        keys = new String[size];
+        utf8Keys = new byte[size][];
+        offHeap = new OffHeapStringMap(size);
+        hashMap = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            keys[i] = "session-" + i;
+            utf8Keys[i] = keys[i].getBytes(StandardCharsets.UTF_8);
+            offHeap.put(keys[i], "user" + i);
+            hashMap.put(keys[i], "user" + i);
+        }
+        //looked up in random order, sequential String hash codes would flatter the HashMap
+        Random random = new Random(42);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            byte[] bytes = utf8Keys[i];
+            utf8Keys[i] = utf8Keys[j];
+            utf8Keys[j] = bytes;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        offHeap.close();
+    }
+
+    private int next() {
+        index = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return offHeap.contains(keys[next()]);
+    }
+
+    @Benchmark
+    public boolean containsBytes() {
+        byte[] key = utf8Keys[next()];
+        return offHeap.contains(key, 0, key.length);
+    }
+
+    @Benchmark
+    public boolean containsBuilder() {
+        //key assembled in a reused builder, as when reading from a stream
+        sb.setLength(0);
+        sb.append(keys[next()]);
+        return offHeap.contains(sb);
+    }
+
+    @Benchmark
+    public String get() {
+        return offHeap.get(keys[next()]);
+    }
+
+    @Benchmark
+    public boolean jdkContains() {
+        return hashMap.containsKey(keys[next()]);
+    }
+
+    @Benchmark
+    public boolean jdkContainsBuilder() {
+        sb.setLength(0);
+        sb.append(keys[next()]);
+        return hashMap.containsKey(sb.toString());
+    }
+
+    @Benchmark
+    public String jdkGet() {
+        return hashMap.get(keys[next()]);
+    }
+}
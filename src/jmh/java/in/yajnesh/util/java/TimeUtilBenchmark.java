@@ -0,0 +1,112 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link TimeUtil}.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeUtilBenchmark {
+
+    @Param({"0", "7", "42", "99", "1234"})
+    long value;
+
+    long epochMillis = 1792326896789L;
+    StringBuilder sb = new StringBuilder();
+    SimpleDateFormat isoFormat = newIsoFormat();
+    char[] durationBuffer = new char[TimeUtil.MAX_DURATION_LENGTH];
+    long durationNanos = 93784567891234L;
+
+    @Benchmark
+    public String getTwoDigitValue() {
+        return TimeUtil.getTwoDigitValue(value);
+    }
+
+    @Benchmark
+    public StringBuilder appendIsoDateTime() {
+        sb.setLength(0);
+        //a new millisecond every call, the second changes every 1000 calls
+        return TimeUtil.appendIsoDateTime(sb, epochMillis++);
+    }
+
+    @Benchmark
+    public String jdkIsoDateTime() {
+        return isoFormat.format(new Date(epochMillis++));
+    }
+
+    @Benchmark
+    public int writeDuration() {
+        return TimeUtil.writeDuration(durationBuffer, 0, durationNanos++, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public long parseDuration() {
+        return TimeUtil.parseDuration("1d 02:03:04.567", TimeUnit.MILLISECONDS, -1);
+    }
+
+    @Benchmark
+    public String jdkDuration() {
+        long millis = TimeUnit.NANOSECONDS.toMillis(durationNanos++);
+        return String.format("%dd %02d:%02d:%02d.%03d", millis / 86400000, millis / 3600000 % 24, millis / 60000 % 60, millis / 1000 % 60, millis % 1000);
+    }
+
+    @Benchmark
+    public String jdkFormat() {
+        return String.format("%02d", value);
+    }
+
+    @Benchmark
+    public String jdkConcat() {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+
+    private static SimpleDateFormat newIsoFormat() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+}
@@ -0,0 +1,96 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link UrlCodec}.
+ * <p>
+ * Methods prefixed with <code>jdk</code> are the plain JDK equivalents, to be read as the baseline.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UrlCodecBenchmark {
+
+    /**
+     * SAFE needs no escaping, which is the common case for parameters
+     */
+    @Param({"SAFE", "SHORT", "NON_ASCII_SHORT", "NON_ASCII_LONG"})
+    String shape;
+
+    String s;
+    String encoded;
+    StringBuilder sb = new StringBuilder();
+
+    @Setup
+    public void setUp() {
+        s = "SAFE".equals(shape) ? "order_id-12345" : Inputs.Text.valueOf(shape).value;
+        encoded = UrlCodec.UTF_8.encode(s);
+    }
+
+    @Benchmark
+    public String safeUrlEncode() {
+        return JUtil.safeUrlEncode(s, "UTF-8");
+    }
+
+    @Benchmark
+    public StringBuilder encodeInto() {
+        sb.setLength(0);
+        return UrlCodec.UTF_8.encode(s, sb);
+    }
+
+    @Benchmark
+    public String decode() {
+        return UrlCodec.UTF_8.decode(encoded);
+    }
+
+    @Benchmark
+    public String jdkEncode() throws UnsupportedEncodingException {
+        return URLEncoder.encode(s, "UTF-8");
+    }
+
+    @Benchmark
+    public String jdkDecode() throws UnsupportedEncodingException {
+        return URLDecoder.decode(encoded, "UTF-8");
+    }
+}
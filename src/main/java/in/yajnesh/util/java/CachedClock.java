@@ -0,0 +1,117 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coarse clock, a single daemon thread reads the time every tick and publishes it along with its formatted text.
+ * <p>
+ * Readers get both with a single volatile read and no allocation.
+ * Used through {@link TimeUtil#startClock(long)} and {@link TimeUtil#currentTimeMillis()}.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+final class CachedClock implements Runnable {
+
+    /**
+     * latest tick, null when the clock is not running
+     */
+    private volatile Tick tick;
+
+    private Thread ticker;
+    private long resolutionNanos;
+
+    /**
+     * @return the latest tick, or null if the clock is not running
+     */
+    Tick tick() {
+        return tick;
+    }
+
+    synchronized boolean isRunning() {
+        return ticker != null;
+    }
+
+    synchronized void start(long resolutionMillis) {
+        resolutionNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(resolutionMillis, 1));
+        if (ticker != null) {
+            //already running, the new resolution is used from the next tick
+            return;
+        }
+        publish();
+        ticker = new Thread(this, "TimeUtil-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    synchronized void stop() {
+        if (ticker == null) {
+            return;
+        }
+        ticker.interrupt();
+        ticker = null;
+        tick = null;
+    }
+
+    @Override
+    public void run() {
+        Thread self = Thread.currentThread();
+        while (true) {
+            long resolution;
+            synchronized (this) {
+                if (ticker != self) {
+                    return;
+                }
+                resolution = resolutionNanos;
+            }
+            LockSupport.parkNanos(this, resolution);
+            synchronized (this) {
+                if (ticker != self) {
+                    return;
+                }
+                publish();
+            }
+        }
+    }
+
+    private void publish() {
+        long now = System.currentTimeMillis();
+        Tick last = tick;
+        if (last == null || last.millis != now) {
+            tick = new Tick(now, TimeUtil.formatIsoDateTime(now));
+        }
+    }
+
+    /**
+     * The time and its formatted text, immutable so that both are read consistently
+     */
+    static final class Tick {
+        final long millis;
+        final String isoDateTime;
+
+        Tick(long millis, String isoDateTime) {
+            this.millis = millis;
+            this.isoDateTime = isoDateTime;
+        }
+    }
+}
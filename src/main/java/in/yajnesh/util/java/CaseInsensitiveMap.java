@@ -0,0 +1,68 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+
+import java.util.Map;
+
+/**
+ * {@link Map} of String keys that compare ignoring case and surrounding whitespace, as {@link JUtil#equalsRelaxed(Object, Object)} does.
+ * <p>
+ * A lighter alternative to <code>new TreeMap&lt;&gt;(String.CASE_INSENSITIVE_ORDER)</code> with hashed lookups:
+ * the folded hash of {@link JUtil#hashCodeRelaxed(Object)} is cached per key, and lookups fold the probe key in place,
+ * so no lower cased or trimmed copy is ever made. Any {@link CharSequence} can be looked up, a StringBuilder included.
+ * </p>
+ * <p>
+ * The first key put is kept, putting <code>" Content-Type"</code> over <code>"content-type"</code> replaces the value only.
+ * {@link #keySet()} and {@link #entrySet()} hand out the keys as put, so their equals and hashCode are the plain String ones.
+ * </p>
+ * <p>
+ * Usage: <code>Map&lt;String, String&gt; headers = new CaseInsensitiveMap&lt;String&gt;(16); headers.get("CONTENT-TYPE");</code>
+ * </p>
+ * Not thread safe.
+ *
+ * @param <V> type of the values
+ * @author Yajnesh T
+ * @see CaseInsensitiveSet
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CaseInsensitiveMap<V> extends StringTableMap<V> {
+
+    private static final long serialVersionUID = 1L;
+
+    public CaseInsensitiveMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of entries to hold without resizing
+     */
+    public CaseInsensitiveMap(int expectedSize) {
+        super(expectedSize, true);
+    }
+
+    /**
+     * @param map entries to copy, of keys equal ignoring case the last one's value wins
+     */
+    public CaseInsensitiveMap(Map<? extends String, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+}
@@ -0,0 +1,62 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+
+import java.util.Collection;
+
+/**
+ * {@link java.util.Set} of Strings that compare ignoring case and surrounding whitespace, as {@link JUtil#equalsRelaxed(Object, Object)} does.
+ * <p>
+ * The folded hash of {@link JUtil#hashCodeRelaxed(Object)} is cached per element, and lookups fold the probe in place,
+ * so any {@link CharSequence} can be looked up without a copy. The first of equal elements added is the one kept.
+ * </p>
+ * <p>
+ * Usage: <code>Set&lt;String&gt; reserved = new CaseInsensitiveSet(Arrays.asList("select", "from")); reserved.contains("FROM");</code>
+ * </p>
+ * Not thread safe.
+ *
+ * @author Yajnesh T
+ * @see CaseInsensitiveMap
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CaseInsensitiveSet extends StringTableSet {
+
+    private static final long serialVersionUID = 1L;
+
+    public CaseInsensitiveSet() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of elements to hold without resizing
+     */
+    public CaseInsensitiveSet(int expectedSize) {
+        super(expectedSize, true);
+    }
+
+    /**
+     * @param collection elements to copy
+     */
+    public CaseInsensitiveSet(Collection<? extends String> collection) {
+        this(collection.size());
+        addAll(collection);
+    }
+}
@@ -0,0 +1,62 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.Map;
+
+/**
+ * Memory compact {@link Map} of String to String, a drop in replacement for <code>HashMap&lt;String, String&gt;</code>.
+ * <p>
+ * Keys, values and cached key hashes are kept in flat arrays with open addressing, so an entry costs
+ * about 12 bytes instead of a 32 byte node plus its table slot. The full {@link Map} contract is honoured,
+ * null keys and values included, and iterators are fail fast.
+ * </p>
+ * <p>
+ * Usage: <code>Map&lt;String, String&gt; attributes = JUtil.emptyMapMutable(8);</code>
+ * </p>
+ * Entries handed out by {@link #entrySet()} are views, created on iteration. Not thread safe.
+ *
+ * @author Yajnesh T
+ * @see CompactStringSet
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CompactStringMap extends StringTableMap<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    public CompactStringMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of entries to hold without resizing
+     */
+    public CompactStringMap(int expectedSize) {
+        super(expectedSize, false);
+    }
+
+    /**
+     * @param map entries to copy
+     */
+    public CompactStringMap(Map<? extends String, ? extends String> map) {
+        this(map.size());
+        putAll(map);
+    }
+}
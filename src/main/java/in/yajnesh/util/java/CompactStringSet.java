@@ -0,0 +1,62 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.Collection;
+
+/**
+ * Memory compact {@link java.util.Set} of Strings, a drop in replacement for <code>HashSet&lt;String&gt;</code>.
+ * <p>
+ * Keys and their cached hashes are kept in flat arrays with open addressing, so an element costs
+ * about 8 bytes instead of a 32 byte node plus its table slot, and the HashMap a HashSet wraps.
+ * The full {@link java.util.Set} contract is honoured, null included, and iterators are fail fast.
+ * </p>
+ * <p>
+ * Usage: <code>Set&lt;String&gt; tags = JUtil.emptySetMutable(8);</code>
+ * </p>
+ * Not thread safe.
+ *
+ * @author Yajnesh T
+ * @see CompactStringMap
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class CompactStringSet extends StringTableSet {
+
+    private static final long serialVersionUID = 1L;
+
+    public CompactStringSet() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of elements to hold without resizing
+     */
+    public CompactStringSet(int expectedSize) {
+        super(expectedSize, false);
+    }
+
+    /**
+     * @param collection elements to copy
+     */
+    public CompactStringSet(Collection<? extends String> collection) {
+        this(collection.size());
+        addAll(collection);
+    }
+}
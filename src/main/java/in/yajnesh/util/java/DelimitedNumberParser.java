@@ -0,0 +1,450 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses a whole delimited payload of numbers into a primitive array, in one tight loop.
+ * <p>
+ * Fields are separated by the delimiter or by a line break, and may have surrounding whitespace.
+ * A blank last field (Eg. after a trailing line break) is not counted.
+ * A field which cannot be parsed gets the default value, and its index is set in the optional failures bitmap,
+ * nothing is ever thrown.
+ * </p>
+ * <p>
+ * Inputs longer than the parallel threshold are split at field boundaries and parsed on a {@link ForkJoinPool}.
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ * <p>
+ * Usage: <code>long[] ids = new DelimitedNumberParser(',').parseLongs(payload, 0, failures);</code>
+ * </p>
+ *
+ * @author Yajnesh T
+ * @see NumberUtil#parseLongs(CharSequence, char)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class DelimitedNumberParser {
+
+    /**
+     * Inputs with at least these many characters are parsed in parallel, unless configured otherwise
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
+
+    /**
+     * Pass as parallel threshold to always parse on the calling thread
+     */
+    public static final int NEVER_PARALLEL = Integer.MAX_VALUE;
+
+    private final char delimiter;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param delimiter field delimiter Eg. <code>','</code>, line breaks always separate fields as well
+     */
+    public DelimitedNumberParser(char delimiter) {
+        this(delimiter, DEFAULT_PARALLEL_THRESHOLD, null);
+    }
+
+    /**
+     * @param delimiter         field delimiter Eg. <code>','</code>, line breaks always separate fields as well
+     * @param parallelThreshold inputs with at least these many characters are parsed in parallel
+     * @param pool              pool to parse in parallel on, null for a shared pool sized to the processors
+     */
+    public DelimitedNumberParser(char delimiter, int parallelThreshold, ForkJoinPool pool) {
+        this.delimiter = delimiter;
+        this.parallelThreshold = Math.max(parallelThreshold, 1);
+        this.pool = pool;
+    }
+
+    /**
+     * @return the field delimiter
+     */
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * @return inputs with at least these many characters are parsed in parallel
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Parse every field into an int
+     *
+     * @param cs           the delimited payload
+     * @param defaultValue value of the fields which cannot be parsed
+     * @param failures     optional, gets the index of every field which cannot be parsed
+     * @return one int per field, empty array if cs is null
+     */
+    public int[] parseInts(CharSequence cs, int defaultValue, BitSet failures) {
+        IntColumn column = new IntColumn(defaultValue);
+        parse(cs, column, failures);
+        return column.values;
+    }
+
+    /**
+     * Parse every field into a long
+     *
+     * @param cs           the delimited payload
+     * @param defaultValue value of the fields which cannot be parsed
+     * @param failures     optional, gets the index of every field which cannot be parsed
+     * @return one long per field, empty array if cs is null
+     */
+    public long[] parseLongs(CharSequence cs, long defaultValue, BitSet failures) {
+        LongColumn column = new LongColumn(defaultValue);
+        parse(cs, column, failures);
+        return column.values;
+    }
+
+    /**
+     * Parse every field into a double
+     *
+     * @param cs           the delimited payload
+     * @param defaultValue value of the fields which cannot be parsed
+     * @param failures     optional, gets the index of every field which cannot be parsed
+     * @return one double per field, empty array if cs is null
+     */
+    public double[] parseDoubles(CharSequence cs, double defaultValue, BitSet failures) {
+        DoubleColumn column = new DoubleColumn(defaultValue);
+        parse(cs, column, failures);
+        return column.values;
+    }
+
+    /**
+     * @see #parseInts(CharSequence, int, BitSet)
+     */
+    public int[] parseInts(char[] chars, int defaultValue, BitSet failures) {
+        return parseInts(chars == null ? null : CharBuffer.wrap(chars), defaultValue, failures);
+    }
+
+    /**
+     * @see #parseLongs(CharSequence, long, BitSet)
+     */
+    public long[] parseLongs(char[] chars, long defaultValue, BitSet failures) {
+        return parseLongs(chars == null ? null : CharBuffer.wrap(chars), defaultValue, failures);
+    }
+
+    /**
+     * @see #parseDoubles(CharSequence, double, BitSet)
+     */
+    public double[] parseDoubles(char[] chars, double defaultValue, BitSet failures) {
+        return parseDoubles(chars == null ? null : CharBuffer.wrap(chars), defaultValue, failures);
+    }
+
+    /**
+     * @param bytes ASCII payload
+     * @see #parseInts(CharSequence, int, BitSet)
+     */
+    public int[] parseInts(byte[] bytes, int defaultValue, BitSet failures) {
+        return parseInts(bytes == null ? null : new ByteArraySequence(bytes), defaultValue, failures);
+    }
+
+    /**
+     * @param bytes ASCII payload
+     * @see #parseLongs(CharSequence, long, BitSet)
+     */
+    public long[] parseLongs(byte[] bytes, long defaultValue, BitSet failures) {
+        return parseLongs(bytes == null ? null : new ByteArraySequence(bytes), defaultValue, failures);
+    }
+
+    /**
+     * @param bytes ASCII payload
+     * @see #parseDoubles(CharSequence, double, BitSet)
+     */
+    public double[] parseDoubles(byte[] bytes, double defaultValue, BitSet failures) {
+        return parseDoubles(bytes == null ? null : new ByteArraySequence(bytes), defaultValue, failures);
+    }
+
+    /**
+     * @param buffer ASCII payload, between position and limit. Position and limit are left untouched
+     * @see #parseInts(CharSequence, int, BitSet)
+     */
+    public int[] parseInts(ByteBuffer buffer, int defaultValue, BitSet failures) {
+        return parseInts(buffer == null ? null : new ByteBufferSequence(buffer), defaultValue, failures);
+    }
+
+    /**
+     * @param buffer ASCII payload, between position and limit. Position and limit are left untouched
+     * @see #parseLongs(CharSequence, long, BitSet)
+     */
+    public long[] parseLongs(ByteBuffer buffer, long defaultValue, BitSet failures) {
+        return parseLongs(buffer == null ? null : new ByteBufferSequence(buffer), defaultValue, failures);
+    }
+
+    /**
+     * @param buffer ASCII payload, between position and limit. Position and limit are left untouched
+     * @see #parseDoubles(CharSequence, double, BitSet)
+     */
+    public double[] parseDoubles(ByteBuffer buffer, double defaultValue, BitSet failures) {
+        return parseDoubles(buffer == null ? null : new ByteBufferSequence(buffer), defaultValue, failures);
+    }
+
+    private void parse(CharSequence cs, Column column, BitSet failures) {
+        if (cs == null) {
+            column.allocate(0);
+            return;
+        }
+        final int length = cs.length();
+        ForkJoinPool executor = length >= parallelThreshold ? (pool == null ? SharedPool.POOL : pool) : null;
+        if (executor == null) {
+            //a single chunk, counted then parsed in place, without the list of chunks to walk
+            Chunk chunk = new Chunk(this, cs, 0, length, column, failures, true);
+            chunk.compute();
+            column.allocate(chunk.fields);
+            chunk.counting = false;
+            chunk.compute();
+            return;
+        }
+        int chunkCount = Math.max(1, Math.min(executor.getParallelism() * 4, length / 4096));
+
+        //chunk boundaries are moved to just after a separator, so that every field starts and ends in one chunk
+        List<Chunk> chunks = new ArrayList<>(chunkCount);
+        int chunkStart = 0;
+        for (int k = 1; k <= chunkCount && chunkStart < length; k++) {
+            int chunkEnd = k == chunkCount ? length : (int) ((long) length * k / chunkCount);
+            chunkEnd = Math.max(chunkEnd, chunkStart);
+            while (chunkEnd < length && !isSeparator(cs.charAt(chunkEnd - 1))) {
+                chunkEnd++;
+            }
+            chunks.add(new Chunk(this, cs, chunkStart, chunkEnd, column, failures, chunkEnd == length));
+            chunkStart = chunkEnd;
+        }
+
+        run(executor, chunks);
+        int total = 0;
+        for (Chunk chunk : chunks) {
+            chunk.offset = total;
+            total += chunk.fields;
+            chunk.counting = false;
+        }
+        column.allocate(total);
+        run(executor, chunks);
+    }
+
+    private static void run(ForkJoinPool executor, final List<Chunk> chunks) {
+        if (chunks.size() == 1) {
+            for (Chunk chunk : chunks) {
+                chunk.compute();
+            }
+            return;
+        }
+        for (Chunk chunk : chunks) {
+            chunk.reinitialize();
+        }
+        executor.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(chunks);
+            }
+        });
+    }
+
+    private boolean isSeparator(char c) {
+        return c == delimiter || c == '\n';
+    }
+
+    /**
+     * Range of the payload holding whole fields, first counts them, then parses them
+     */
+    private static final class Chunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DelimitedNumberParser parser;
+        private final CharSequence cs;
+        private final int start;
+        private final int end;
+        private final Column column;
+        private final BitSet failures;
+        private final boolean last;
+
+        boolean counting = true;
+        int fields;
+        int offset;
+
+        Chunk(DelimitedNumberParser parser, CharSequence cs, int start, int end, Column column, BitSet failures, boolean last) {
+            this.parser = parser;
+            this.cs = cs;
+            this.start = start;
+            this.end = end;
+            this.column = column;
+            this.failures = failures;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (counting) {
+                count();
+            } else {
+                parse();
+            }
+        }
+
+        private void count() {
+            int separators = 0;
+            for (int i = start; i < end; i++) {
+                if (parser.isSeparator(cs.charAt(i))) {
+                    separators++;
+                }
+            }
+            fields = separators;
+            if (last && !isLastFieldBlank()) {
+                fields++;
+            }
+        }
+
+        private boolean isLastFieldBlank() {
+            int i = end;
+            while (i > start && !parser.isSeparator(cs.charAt(i - 1))) {
+                i--;
+            }
+            return JUtil.trimStart(cs, i, end) == end;
+        }
+
+        private void parse() {
+            BitSet localFailures = null;
+            int index = offset;
+            int fieldStart = start;
+            final int limit = offset + fields;
+            for (int i = start; index < limit; i++) {
+                if (i < end && !parser.isSeparator(cs.charAt(i))) {
+                    continue;
+                }
+                int from = JUtil.trimStart(cs, fieldStart, i);
+                int to = JUtil.trimEnd(cs, from, i);
+                if (!column.set(index, cs, from, to) && failures != null) {
+                    if (localFailures == null) {
+                        localFailures = new BitSet();
+                    }
+                    localFailures.set(index);
+                }
+                index++;
+                fieldStart = i + 1;
+            }
+            if (localFailures != null) {
+                //chunks may run in parallel, BitSet is not thread safe
+                synchronized (failures) {
+                    failures.or(localFailures);
+                }
+            }
+        }
+    }
+
+    /**
+     * Destination array of one primitive type
+     */
+    private abstract static class Column {
+
+        abstract void allocate(int size);
+
+        /**
+         * @return false if the field could not be parsed, and the default value was set instead
+         */
+        abstract boolean set(int index, CharSequence cs, int start, int end);
+    }
+
+    private static final class IntColumn extends Column {
+
+        private final int defaultValue;
+        int[] values;
+
+        IntColumn(int defaultValue) {
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        void allocate(int size) {
+            values = new int[size];
+        }
+
+        @Override
+        boolean set(int index, CharSequence cs, int start, int end) {
+            int value = NumberUtil.parseInt(cs, start, end, defaultValue);
+            values[index] = value;
+            return value != defaultValue || NumberUtil.checkInt(cs, start, end) == NumberUtil.PARSE_OK;
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private final long defaultValue;
+        long[] values;
+
+        LongColumn(long defaultValue) {
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        void allocate(int size) {
+            values = new long[size];
+        }
+
+        @Override
+        boolean set(int index, CharSequence cs, int start, int end) {
+            long value = NumberUtil.parseLong(cs, start, end, defaultValue);
+            values[index] = value;
+            return value != defaultValue || NumberUtil.checkLong(cs, start, end) == NumberUtil.PARSE_OK;
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private final double defaultValue;
+        double[] values;
+
+        DoubleColumn(double defaultValue) {
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        void allocate(int size) {
+            values = new double[size];
+        }
+
+        @Override
+        boolean set(int index, CharSequence cs, int start, int end) {
+            double value = NumberUtil.parseDouble(cs, start, end, Double.NaN);
+            if (Double.isNaN(value) && NumberUtil.parseDouble(cs, start, end, 0) == 0) {
+                values[index] = defaultValue;
+                return false;
+            }
+            values[index] = value;
+            return true;
+        }
+    }
+
+    /**
+     * Created on first parallel use only
+     */
+    private static final class SharedPool {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+}
@@ -0,0 +1,325 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Correctly rounded decimal to double conversion, used by {@link NumberUtil}.
+ * <p>
+ * Plain decimals (sign, digits, fraction, exponent) are converted by the exact Clinger fast path
+ * when possible, otherwise by the Eisel-Lemire algorithm. The rare inputs neither can decide,
+ * as well as the rest of the {@link Double#parseDouble(String)} grammar (NaN, Infinity, hex, type suffix),
+ * fall back to the JDK. Text which cannot be a number returns the default value without any exception.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+final class DoubleParser {
+
+    private static final int MIN_EXP10 = -342;
+    private static final int MAX_EXP10 = 308;
+
+    /**
+     * significant digits which always fit in an unsigned long
+     */
+    private static final int MAX_DIGITS = 19;
+
+    /**
+     * exact powers of ten, for the Clinger fast path
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * 128 bit approximation of 5^q for q in [MIN_EXP10, MAX_EXP10], normalized and rounded down
+     */
+    private static final long[] POWERS_OF_FIVE_HI = new long[MAX_EXP10 - MIN_EXP10 + 1];
+    private static final long[] POWERS_OF_FIVE_LO = new long[MAX_EXP10 - MIN_EXP10 + 1];
+
+    static {
+        final BigInteger five = BigInteger.valueOf(5);
+        for (int q = MIN_EXP10; q <= MAX_EXP10; q++) {
+            BigInteger power = five.pow(Math.abs(q));
+            BigInteger normalized;
+            if (q >= 0) {
+                int shift = power.bitLength() - 128;
+                normalized = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                normalized = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power);
+            }
+            POWERS_OF_FIVE_HI[q - MIN_EXP10] = normalized.shiftRight(64).longValue();
+            POWERS_OF_FIVE_LO[q - MIN_EXP10] = normalized.longValue();
+        }
+    }
+
+    private DoubleParser() {
+    }
+
+    static double parse(CharSequence cs, int start, int end, double defaultValue) {
+        if (cs == null || start < 0 || end > cs.length() || start > end) {
+            return defaultValue;
+        }
+        return parse(cs, null, null, start, end, defaultValue);
+    }
+
+    static double parse(char[] chars, int start, int end, double defaultValue) {
+        if (chars == null || start < 0 || end > chars.length || start > end) {
+            return defaultValue;
+        }
+        return parse(null, chars, null, start, end, defaultValue);
+    }
+
+    /**
+     * @param bytes one character per byte, as ISO-8859-1
+     */
+    static double parse(byte[] bytes, int start, int end, double defaultValue) {
+        if (bytes == null || start < 0 || end > bytes.length || start > end) {
+            return defaultValue;
+        }
+        return parse(null, null, bytes, start, end, defaultValue);
+    }
+
+    /**
+     * exactly one of cs, chars and bytes is not null, the range is within it. Read in place, so that arrays need no CharSequence view
+     */
+    private static double parse(CharSequence cs, char[] chars, byte[] bytes, int start, int end, double defaultValue) {
+        //same as Double.parseDouble, surrounding whitespace is allowed
+        while (start < end && charAt(cs, chars, bytes, start) <= ' ') {
+            start++;
+        }
+        while (end > start && charAt(cs, chars, bytes, end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return defaultValue;
+        }
+
+        int i = start;
+        char c = charAt(cs, chars, bytes, i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        boolean anyDigit = false;
+        boolean truncated = false;
+
+        for (; i < end && (c = charAt(cs, chars, bytes, i)) >= '0' && c <= '9'; i++) {
+            anyDigit = true;
+            if (mantissa == 0 && c == '0') {
+                continue;
+            }
+            if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+            } else {
+                exp10++;
+                truncated |= c != '0';
+            }
+        }
+        if (i < end && charAt(cs, chars, bytes, i) == '.') {
+            for (i++; i < end && (c = charAt(cs, chars, bytes, i)) >= '0' && c <= '9'; i++) {
+                anyDigit = true;
+                if (mantissa == 0 && c == '0') {
+                    exp10--;
+                } else if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    exp10--;
+                } else {
+                    truncated |= c != '0';
+                }
+            }
+        }
+        if (anyDigit && i < end && ((c = charAt(cs, chars, bytes, i)) == 'e' || c == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < end && ((c = charAt(cs, chars, bytes, i)) == '-' || c == '+')) {
+                negativeExp = c == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int exponent = 0;
+            for (; i < end && (c = charAt(cs, chars, bytes, i)) >= '0' && c <= '9'; i++) {
+                //anything above this is zero or infinity anyway, capping avoids int overflow
+                if (exponent < 100000) {
+                    exponent = exponent * 10 + (c - '0');
+                }
+            }
+            if (i == exponentStart) {
+                return defaultValue;
+            }
+            exp10 += negativeExp ? -exponent : exponent;
+        }
+
+        if (i != end || !anyDigit) {
+            return isJdkGrammar(i < end ? charAt(cs, chars, bytes, i) : 0) ? parseJdk(cs, chars, bytes, start, end, defaultValue) : defaultValue;
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        if (!truncated) {
+            //19 digits may not fit in a signed long, mantissa is unsigned from here on
+            if (exp10 >= -22 && exp10 <= 22 && mantissa >= 0 && mantissa < (1L << 53)) {
+                double d = exp10 < 0 ? mantissa / POWERS_OF_TEN[-exp10] : mantissa * POWERS_OF_TEN[exp10];
+                return negative ? -d : d;
+            }
+            if (exp10 < MIN_EXP10) {
+                //at most 19 digits, so below half of the smallest subnormal
+                return negative ? -0.0 : 0.0;
+            }
+            if (exp10 > MAX_EXP10) {
+                return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            }
+            double d = eiselLemire(mantissa, exp10, negative);
+            if (!Double.isNaN(d)) {
+                return d;
+            }
+        } else if (exp10 >= MIN_EXP10 && exp10 <= MAX_EXP10) {
+            //the exact value lies between mantissa and mantissa + 1, if both round the same way, that is the answer
+            double low = eiselLemire(mantissa, exp10, negative);
+            if (!Double.isNaN(low) && low == eiselLemire(mantissa + 1, exp10, negative)) {
+                return low;
+            }
+        }
+        return parseJdk(cs, chars, bytes, start, end, defaultValue);
+    }
+
+    /**
+     * Eisel-Lemire, mantissa * 10^exp10 rounded to the nearest double
+     *
+     * @return the double, or NaN when the 128 bit approximation is not precise enough to decide
+     */
+    private static double eiselLemire(long mantissa, int exp10, boolean negative) {
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        mantissa <<= leadingZeros;
+        //217706 / 2^16 approximates log2(10)
+        long exp2 = ((217706L * exp10) >> 16) + 64 + 1023 - leadingZeros;
+
+        int index = exp10 - MIN_EXP10;
+        long xHi = multiplyHigh(mantissa, POWERS_OF_FIVE_HI[index]);
+        long xLo = mantissa * POWERS_OF_FIVE_HI[index];
+        if ((xHi & 0x1FF) == 0x1FF && lessThanUnsigned(xLo + mantissa, mantissa)) {
+            long yHi = multiplyHigh(mantissa, POWERS_OF_FIVE_LO[index]);
+            long yLo = mantissa * POWERS_OF_FIVE_LO[index];
+            long mergedHi = xHi;
+            long mergedLo = xLo + yHi;
+            if (lessThanUnsigned(mergedLo, xLo)) {
+                mergedHi++;
+            }
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0 && lessThanUnsigned(yLo + mantissa, mantissa)) {
+                return Double.NaN;
+            }
+            xHi = mergedHi;
+            xLo = mergedLo;
+        }
+
+        long msb = xHi >>> 63;
+        long bits = xHi >>> (msb + 9);
+        exp2 -= 1 ^ msb;
+        if (xLo == 0 && (xHi & 0x1FF) == 0 && (bits & 3) == 1) {
+            //exactly half way, the approximation cannot tell which way to round
+            return Double.NaN;
+        }
+        bits += bits & 1;
+        bits >>>= 1;
+        if ((bits >>> 53) > 0) {
+            bits >>>= 1;
+            exp2++;
+        }
+        if (exp2 <= 0 || exp2 >= 0x7FF) {
+            //subnormal or infinite
+            return Double.NaN;
+        }
+        bits = exp2 << 52 | bits & 0x000FFFFFFFFFFFFFL;
+        if (negative) {
+            bits |= 0x8000000000000000L;
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * High 64 bits of the unsigned 128 bit product
+     */
+    private static long multiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long middle = x1 * y0 + ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL);
+        return x1 * y1 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    private static boolean lessThanUnsigned(long a, long b) {
+        return a + Long.MIN_VALUE < b + Long.MIN_VALUE;
+    }
+
+    /**
+     * Could the character start the part of the JDK grammar not handled here? (NaN, Infinity, hex, d/f suffix)
+     */
+    private static boolean isJdkGrammar(char c) {
+        switch (c) {
+            case 'N':
+            case 'I':
+            case 'x':
+            case 'X':
+            case 'p':
+            case 'P':
+            case 'd':
+            case 'D':
+            case 'f':
+            case 'F':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static char charAt(CharSequence cs, char[] chars, byte[] bytes, int i) {
+        if (chars != null) {
+            return chars[i];
+        }
+        return bytes != null ? (char) (bytes[i] & 0xFF) : cs.charAt(i);
+    }
+
+    private static double parseJdk(CharSequence cs, char[] chars, byte[] bytes, int start, int end, double defaultValue) {
+        String text;
+        if (chars != null) {
+            text = new String(chars, start, end - start);
+        } else if (bytes != null) {
+            text = new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        } else {
+            text = cs.subSequence(start, end).toString();
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decides what empty means for each class, for {@link JUtil#isAnyEmpty(Object...)} and {@link JUtil#isAllEmpty(Object...)}
+ * <p>
+ * The check for a class is resolved once and cached in a {@link ClassValue}, so a call costs a single lookup
+ * instead of an <code>instanceof</code> chain. Checks registered through
+ * {@link JUtil#registerEmptinessCheck(Class, JUtil.EmptinessCheck)} come first, the most recent winning,
+ * then the built in ones: blank CharSequences, empty Collections, Maps and arrays, and absent Optionals.
+ * Anything else is never empty.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+final class EmptinessChecks {
+
+    /**
+     * Optional types, matched by name so that neither Java 8 nor Guava is needed
+     */
+    private static final String[] OPTIONAL_TYPES = {"java.util.Optional", "java.util.OptionalInt", "java.util.OptionalLong",
+            "java.util.OptionalDouble", "com.google.common.base.Optional"};
+
+    //guarded by the class lock, in order of registration
+    private static final Map<Class<?>, JUtil.EmptinessCheck<?>> REGISTERED = new LinkedHashMap<>();
+
+    //replaced on every registration, as classes already resolved may now resolve differently
+    private static volatile ClassValue<JUtil.EmptinessCheck<Object>> checks = newChecks();
+
+    private EmptinessChecks() {
+    }
+
+    /**
+     * @param o the object
+     * @return true if the object is null or empty
+     */
+    static boolean isEmpty(Object o) {
+        return o == null || checks.get(o.getClass()).isEmpty(o);
+    }
+
+    static synchronized <T> void register(Class<T> type, JUtil.EmptinessCheck<? super T> check) {
+        REGISTERED.remove(type);
+        REGISTERED.put(type, check);
+        checks = newChecks();
+    }
+
+    private static ClassValue<JUtil.EmptinessCheck<Object>> newChecks() {
+        return new ClassValue<JUtil.EmptinessCheck<Object>>() {
+            @Override
+            protected JUtil.EmptinessCheck<Object> computeValue(Class<?> type) {
+                return resolve(type);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized JUtil.EmptinessCheck<Object> resolve(Class<?> type) {
+        if (!REGISTERED.isEmpty()) {
+            //an exact registration first, otherwise the latest one for a supertype
+            JUtil.EmptinessCheck<?> exact = REGISTERED.get(type);
+            if (exact != null) {
+                return (JUtil.EmptinessCheck<Object>) exact;
+            }
+            JUtil.EmptinessCheck<?> inherited = null;
+            for (Map.Entry<Class<?>, JUtil.EmptinessCheck<?>> entry : REGISTERED.entrySet()) {
+                if (entry.getKey().isAssignableFrom(type)) {
+                    inherited = entry.getValue();
+                }
+            }
+            if (inherited != null) {
+                return (JUtil.EmptinessCheck<Object>) inherited;
+            }
+        }
+        if (CharSequence.class.isAssignableFrom(type)) {
+            return Builtin.CHAR_SEQUENCE;
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return Builtin.COLLECTION;
+        } else if (Map.class.isAssignableFrom(type)) {
+            return Builtin.MAP;
+        } else if (type.isArray()) {
+            return Builtin.ARRAY;
+        }
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (String name : OPTIONAL_TYPES) {
+                if (name.equals(c.getName())) {
+                    return presence(c);
+                }
+            }
+        }
+        return Builtin.NEVER;
+    }
+
+    private static JUtil.EmptinessCheck<Object> presence(Class<?> optionalType) {
+        try {
+            return new PresenceCheck(optionalType.getMethod("isPresent"));
+        } catch (Exception e) {
+            return Builtin.NEVER;
+        }
+    }
+
+    private enum Builtin implements JUtil.EmptinessCheck<Object> {
+        NEVER {
+            @Override
+            public boolean isEmpty(Object o) {
+                return false;
+            }
+        },
+        CHAR_SEQUENCE {
+            @Override
+            public boolean isEmpty(Object o) {
+                return JUtil.isBlank((CharSequence) o);
+            }
+        },
+        COLLECTION {
+            @Override
+            public boolean isEmpty(Object o) {
+                return ((Collection<?>) o).isEmpty();
+            }
+        },
+        MAP {
+            @Override
+            public boolean isEmpty(Object o) {
+                return ((Map<?, ?>) o).isEmpty();
+            }
+        },
+        ARRAY {
+            @Override
+            public boolean isEmpty(Object o) {
+                //intrinsic, covers primitive arrays as well
+                return Array.getLength(o) == 0;
+            }
+        }
+    }
+
+    /**
+     * Empty when <code>isPresent()</code> is false
+     */
+    private static final class PresenceCheck implements JUtil.EmptinessCheck<Object> {
+
+        private final Method isPresent;
+
+        PresenceCheck(Method isPresent) {
+            this.isPresent = isPresent;
+        }
+
+        @Override
+        public boolean isEmpty(Object o) {
+            try {
+                return !(Boolean) isPresent.invoke(o);
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.Arrays;
+
+/**
+ * Case insensitive substring matcher, compiled once for a search term and reusable for any number of sources.
+ * <p>
+ * Uses Boyer-Moore-Horspool over case folded characters, the skip table is built once in the constructor.
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ * <p>
+ * Usage: <code>IgnoreCaseMatcher m = JUtil.compileIgnoreCase("error"); m.contains(line);</code>
+ * </p>
+ * Characters are compared the same way as {@link String#regionMatches(boolean, int, String, int, int)} ignoring case.
+ *
+ * @author Yajnesh T
+ * @see JUtil#compileIgnoreCase(String)
+ * @see JUtil#containsIgnoreCase(String, String)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class IgnoreCaseMatcher {
+
+    private static final int TABLE_SIZE = 256;
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+
+    /**
+     * fold of every ASCII character, so that the common case avoids {@link Character#toUpperCase(char)}
+     */
+    private static final char[] ASCII_FOLD = new char[128];
+
+    private static final int CACHE_BITS = 6;
+
+    /**
+     * recently compiled matchers, indexed by the hash of their term. Matchers are immutable, so that slots can be written racily
+     */
+    private static final IgnoreCaseMatcher[] CACHE = new IgnoreCaseMatcher[1 << CACHE_BITS];
+
+    static {
+        for (char c = 0; c < ASCII_FOLD.length; c++) {
+            ASCII_FOLD[c] = Character.toLowerCase(Character.toUpperCase(c));
+        }
+    }
+
+    private final String term;
+    private final char[] folded;
+    private final int[] shift;
+
+    /**
+     * @param term the term to search, may be null or empty, in which case nothing is ever matched
+     * @see JUtil#compileIgnoreCase(String)
+     */
+    IgnoreCaseMatcher(String term) {
+        this.term = term;
+        int length = term == null ? 0 : term.length();
+        folded = new char[length];
+        for (int i = 0; i < length; i++) {
+            folded[i] = fold(term.charAt(i));
+        }
+
+        shift = new int[TABLE_SIZE];
+        Arrays.fill(shift, Math.max(length, 1));
+        //characters sharing the low byte share a slot, keeping the smallest shift is always safe
+        for (int i = 0; i < length - 1; i++) {
+            shift[folded[i] & TABLE_MASK] = length - 1 - i;
+        }
+    }
+
+    /**
+     * Get the term this matcher was compiled for
+     *
+     * @return the term, as passed while compiling
+     */
+    public String getTerm() {
+        return term;
+    }
+
+    /**
+     * Does source has the term in it ignoring case?
+     *
+     * @param source the source to be searched
+     * @return true if the term is found in source, otherwise false. Also false if either is null or empty
+     */
+    public boolean contains(CharSequence source) {
+        return indexOf(source, 0) >= 0;
+    }
+
+    /**
+     * Index of the first occurrence of the term in source, ignoring case
+     * <p>
+     * same as calling {@link #indexOf(CharSequence, int) indexOf(source,0)}
+     * </p>
+     *
+     * @param source the source to be searched
+     * @return index of the first match, -1 if not found or if either is null or empty
+     */
+    public int indexOf(CharSequence source) {
+        return indexOf(source, 0);
+    }
+
+    /**
+     * Index of the first occurrence of the term in source at or after fromIndex, ignoring case
+     *
+     * @param source    the source to be searched
+     * @param fromIndex the index to start searching from, negative values are treated as 0
+     * @return index of the first match, -1 if not found or if either is null or empty
+     */
+    public int indexOf(CharSequence source, int fromIndex) {
+        final int length = folded.length;
+        if (source == null || length == 0) {
+            return -1;
+        }
+        final int last = length - 1;
+        final int limit = source.length() - length;
+        int i = Math.max(fromIndex, 0);
+        while (i <= limit) {
+            char c = fold(source.charAt(i + last));
+            if (c == folded[last]) {
+                int j = last - 1;
+                while (j >= 0 && fold(source.charAt(i + j)) == folded[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i;
+                }
+            }
+            i += shift[c & TABLE_MASK];
+        }
+        return -1;
+    }
+
+    /**
+     * Count the non overlapping occurrences of the term in source, ignoring case
+     *
+     * @param source the source to be searched
+     * @return number of matches, 0 if either is null or empty
+     */
+    public int countMatches(CharSequence source) {
+        int count = 0;
+        int i = indexOf(source, 0);
+        while (i >= 0) {
+            count++;
+            i = indexOf(source, i + folded.length);
+        }
+        return count;
+    }
+
+    /**
+     * Get a matcher for the term, compiling it only if it is not among the recently used ones
+     *
+     * @param term the term to search, not null
+     * @return matcher for the term
+     * @see JUtil#containsIgnoreCase(String, String)
+     */
+    static IgnoreCaseMatcher cached(String term) {
+        int slot = (term.hashCode() * 0x9E3779B9) >>> (32 - CACHE_BITS);
+        IgnoreCaseMatcher matcher = CACHE[slot];
+        if (matcher == null || !term.equals(matcher.term)) {
+            matcher = new IgnoreCaseMatcher(term);
+            CACHE[slot] = matcher;
+        }
+        return matcher;
+    }
+
+    /**
+     * Case fold a character, two characters are equal ignoring case if and only if their folds are equal
+     *
+     * @param c the character
+     * @return folded character
+     */
+    static char fold(char c) {
+        if (c < 128) {
+            return ASCII_FOLD[c];
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    @Override
+    public String toString() {
+        return "IgnoreCaseMatcher{" + term + "}";
+    }
+}
@@ -20,26 +20,46 @@ along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
 (ɔ) Yajnesh T
 */
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 import java.util.Set;
 
 /**
  * Collection of common java util methods
+ * <p>
+ * The primitive array overloads of get, getLastItem, size and isEmpty are inherited from {@link JUtilPrimitives}
+ * </p>
  *
  * @author Yajnesh T
  */
 @SuppressWarnings({"WeakerAccess", "unused"})
-public class JUtil {
+public class JUtil extends JUtilPrimitives {
 
     /**
      * Empty string, literally ""
      */
     public static final String EMPTY_STRING = "";
 
+    /**
+     * No limit on the elements or characters written by {@link #stringify(String, Collection, int, int) stringify}
+     */
+    public static final int NO_LIMIT = -1;
+
+    /**
+     * Written by {@link #stringify(String, Collection, int, int) stringify} when the output is cut short
+     */
+    public static final String TRUNCATION_MARKER = "...";
+
     /**
      * Safely get an item from array
      * <p>
@@ -94,6 +114,10 @@ public class JUtil {
 
     /**
      * Safely get an item from list
+     * <p>
+     * Safe on lists shrunk by another thread meanwhile. Lists without {@link RandomAccess} are walked once
+     * with an iterator, instead of asking for their size first
+     * </p>
      *
      * @param list         The list
      * @param index        the index at which the item needs to be fetched
@@ -103,13 +127,79 @@ public class JUtil {
      */
 
     public static <T> T get(List<T> list, int index, T defaultValue) {
-        if (list == null) {
+        if (list == null || index < 0) {
             return defaultValue;
         }
-        if (index < 0 || index >= size(list)) {
+        if (!(list instanceof RandomAccess)) {
+            return nth(list, index, defaultValue);
+        }
+        try {
+            return index < list.size() ? list.get(index) : defaultValue;
+        } catch (IndexOutOfBoundsException e) {
+            //shrunk between size() and get()
             return defaultValue;
         }
-        return list.get(index);
+    }
+
+    /**
+     * Safely get an item from any Iterable, Eg. a Set or a Queue
+     * <p>
+     * same as calling {@link #get(Iterable, int, Object) get(iterable,index,null)}
+     * </p>
+     *
+     * @param iterable The iterable
+     * @param index    the index at which the item needs to be fetched, in iteration order
+     * @return item if found, null otherwise
+     * @see #get(Iterable, int, Object) get(iterable,index,defaultValue)
+     */
+    public static <T> T get(Iterable<T> iterable, int index) {
+        return get(iterable, index, null);
+    }
+
+    /**
+     * Safely get an item from any Iterable, Eg. a Set or a Queue. Never asks for the size, which some concurrent
+     * collections count one element at a time
+     *
+     * @param iterable     The iterable
+     * @param index        the index at which the item needs to be fetched, in iteration order
+     * @param defaultValue in case of iterable is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     * @see #get(Iterable, int) get(iterable,index)
+     */
+    public static <T> T get(Iterable<T> iterable, int index, T defaultValue) {
+        if (iterable instanceof List) {
+            return get((List<T>) iterable, index, defaultValue);
+        }
+        return iterable == null || index < 0 ? defaultValue : nth(iterable, index, defaultValue);
+    }
+
+    /**
+     * Safely get first item from any Iterable
+     * <p>
+     * same as calling {@link #getFirstItem(Iterable, Object) getFirstItem(iterable,null)}
+     * </p>
+     *
+     * @param iterable The iterable, Eg. a List, Set or Deque
+     * @return item if found, null otherwise
+     * @see #getFirstItem(Iterable, Object)  getFirstItem(iterable,defaultValue)
+     */
+    public static <T> T getFirstItem(Iterable<T> iterable) {
+        return getFirstItem(iterable, null);
+    }
+
+    /**
+     * Safely get first item from any Iterable
+     *
+     * @param iterable     The iterable, Eg. a List, Set or Deque
+     * @param defaultValue in case of iterable is null or empty, return this value
+     * @return item if found, defaultValue otherwise
+     * @see #getFirstItem(Iterable)  getFirstItem(iterable)
+     */
+    public static <T> T getFirstItem(Iterable<T> iterable, T defaultValue) {
+        if (iterable instanceof List) {
+            return get((List<T>) iterable, 0, defaultValue);
+        }
+        return iterable == null ? defaultValue : nth(iterable, 0, defaultValue);
     }
 
     /**
@@ -138,9 +228,7 @@ public class JUtil {
      * @see #get(String, int) get(string,index)
      */
     public static Character get(String s, int index, Character defaultValue) {
-        if (isEmpty(s)) {
-            return defaultValue;
-        }
+        //size is 0 for null/blank strings, so this is the isEmpty check as well
         if (index < 0 || index >= size(s)) {
             return defaultValue;
         }
@@ -173,9 +261,7 @@ public class JUtil {
      * @see #get(CharSequence, int) get(charsequence,index)
      */
     public static Character get(CharSequence cs, int index, Character defaultValue) {
-        if (isEmpty(cs)) {
-            return defaultValue;
-        }
+        //size is 0 for null/blank charSequences, so this is the isEmpty check as well
         if (index < 0 || index >= size(cs)) {
             return defaultValue;
         }
@@ -228,6 +314,10 @@ public class JUtil {
 
     /**
      * Safely get an item from list
+     * <p>
+     * Reads the tail directly, in constant time for {@link RandomAccess} lists and {@link Deque}s such as LinkedList.
+     * Safe on lists shrunk by another thread meanwhile
+     * </p>
      *
      * @param list         The list
      * @param defaultValue in case of list is null or empty, return this value
@@ -235,7 +325,99 @@ public class JUtil {
      * @see #getLastItem(List)  getLastItem(list)
      */
     public static <T> T getLastItem(List<T> list, T defaultValue) {
-        return get(list, size(list) - 1, defaultValue);
+        if (list == null) {
+            return defaultValue;
+        }
+        if (list instanceof Deque) {
+            return getLastItem((Deque<T>) list, defaultValue);
+        }
+        try {
+            if (list instanceof RandomAccess) {
+                int size = list.size();
+                return size > 0 ? list.get(size - 1) : defaultValue;
+            }
+            ListIterator<T> iterator = list.listIterator(list.size());
+            return iterator.hasPrevious() ? iterator.previous() : defaultValue;
+        } catch (IndexOutOfBoundsException | NoSuchElementException | ConcurrentModificationException e) {
+            //shrunk meanwhile
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Safely get last item from any Iterable
+     * <p>
+     * same as calling {@link #getLastItem(Iterable, Object) getLastItem(iterable,null)}
+     * </p>
+     *
+     * @param iterable The iterable, Eg. a Set or Deque
+     * @return item if found, null otherwise
+     * @see #getLastItem(Iterable, Object)  getLastItem(iterable,defaultValue)
+     */
+    public static <T> T getLastItem(Iterable<T> iterable) {
+        return getLastItem(iterable, null);
+    }
+
+    /**
+     * Safely get last item from any Iterable
+     * <p>
+     * Lists and {@link Deque}s are read from the tail, in constant time where they allow it, other iterables are walked to the end
+     * </p>
+     *
+     * @param iterable     The iterable, Eg. a Set or Deque
+     * @param defaultValue in case of iterable is null or empty, return this value
+     * @return item if found, defaultValue otherwise
+     * @see #getLastItem(Iterable)  getLastItem(iterable)
+     */
+    public static <T> T getLastItem(Iterable<T> iterable, T defaultValue) {
+        if (iterable instanceof List) {
+            return getLastItem((List<T>) iterable, defaultValue);
+        }
+        if (iterable instanceof Deque) {
+            return getLastItem((Deque<T>) iterable, defaultValue);
+        }
+        if (iterable == null) {
+            return defaultValue;
+        }
+        T last = defaultValue;
+        try {
+            for (T item : iterable) {
+                last = item;
+            }
+        } catch (NoSuchElementException | ConcurrentModificationException e) {
+            //changed meanwhile, the last item seen will do
+        }
+        return last;
+    }
+
+    private static <T> T getLastItem(Deque<T> deque, T defaultValue) {
+        if (deque.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            //not peekLast, which cannot tell a null item from an empty deque
+            return deque.getLast();
+        } catch (NoSuchElementException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Walk to the index, without asking for the size
+     */
+    private static <T> T nth(Iterable<T> iterable, int index, T defaultValue) {
+        try {
+            Iterator<T> iterator = iterable.iterator();
+            for (int i = 0; iterator.hasNext(); i++) {
+                T item = iterator.next();
+                if (i == index) {
+                    return item;
+                }
+            }
+        } catch (NoSuchElementException | ConcurrentModificationException e) {
+            //shrunk meanwhile
+        }
+        return defaultValue;
     }
 
     /**
@@ -330,7 +512,7 @@ public class JUtil {
      * @see #isEmpty(Map)
      */
     public static boolean isEmpty(String s) {
-        return s == null || s.trim().length() == 0;
+        return s == null || isBlank(s);
     }
 
 
@@ -338,14 +520,14 @@ public class JUtil {
      * Is the CharSequence null or empty?
      *
      * @param cs The CharSequence
-     * @return true if the string is null or empty
+     * @return true if the charSequence is null or empty
      * @see #isEmpty(Collection)
      * @see #isEmpty(Object[])
      * @see #isEmpty(String)
      * @see #isEmpty(Map)
      */
     public static boolean isEmpty(CharSequence cs) {
-        return isEmpty(cs.toString());
+        return cs == null || isBlank(cs);
     }
 
     /**
@@ -400,7 +582,7 @@ public class JUtil {
      * @see #size(CharSequence)
      */
     public static int size(String s) {
-        return s == null ? 0 : getString(s).length();
+        return s == null ? 0 : trimmedLength(s);
     }
 
     /**
@@ -413,7 +595,7 @@ public class JUtil {
      * @see #size(String)
      */
     public static int size(CharSequence cs) {
-        return cs == null ? 0 : getString(cs).length();
+        return cs == null ? 0 : trimmedLength(cs);
     }
 
 
@@ -433,19 +615,67 @@ public class JUtil {
     }
 
     /**
-     * Are two strings equal ignoring case?
+     * Are two strings equal ignoring case and surrounding whitespace?
+     * <p>
+     * Same as <code>getString(a).equalsIgnoreCase(getString(b))</code>, but CharSequences are compared in place, without trimmed copies.
+     * </p>
      *
      * @param a first string
      * @param b second string
      * @return 1) false, if either is null <br>2) false, if both are null <br>3) false, if string do not match <br>4) true, otherwise
+     * @see #hashCodeRelaxed(Object)
      */
     public static boolean equalsRelaxed(Object a, Object b) {
-        String as = getString(a);
-        //noinspection SimplifiableIfStatement
-        if (as == null) {
+        if (a == null || b == null) {
+            return false;
+        }
+        CharSequence x = a instanceof CharSequence ? (CharSequence) a : a.toString();
+        CharSequence y = b instanceof CharSequence ? (CharSequence) b : b.toString();
+        if (x == null || y == null) {
+            return false;
+        }
+        int xEnd = x.length();
+        int xStart = trimStart(x, 0, xEnd);
+        xEnd = trimEnd(x, xStart, xEnd);
+        int yEnd = y.length();
+        int yStart = trimStart(y, 0, yEnd);
+        yEnd = trimEnd(y, yStart, yEnd);
+        if (xEnd - xStart != yEnd - yStart) {
             return false;
         }
-        return as.equalsIgnoreCase(getString(b));
+        for (int i = xStart, j = yStart; i < xEnd; i++, j++) {
+            char c = x.charAt(i);
+            char d = y.charAt(j);
+            if (c != d && IgnoreCaseMatcher.fold(c) != IgnoreCaseMatcher.fold(d)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash code consistent with {@link #equalsRelaxed(Object, Object)}, objects equal ignoring case and surrounding whitespace hash alike.
+     * Computed in place over the case folded characters, without copying.
+     *
+     * @param o the string
+     * @return 0 if null, otherwise the hash of the trimmed, case folded string
+     */
+    public static int hashCodeRelaxed(Object o) {
+        if (o == null) {
+            return 0;
+        }
+        CharSequence cs = o instanceof CharSequence ? (CharSequence) o : o.toString();
+        if (cs == null) {
+            return 0;
+        }
+        int end = cs.length();
+        int start = trimStart(cs, 0, end);
+        end = trimEnd(cs, start, end);
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + IgnoreCaseMatcher.fold(cs.charAt(i));
+        }
+        return h;
     }
 
 
@@ -467,34 +697,73 @@ public class JUtil {
 
     /**
      * Does source has searchTerm in it ignoring case?
+     * <p>
+     * Searches with the Boyer-Moore-Horspool matcher of {@link #compileIgnoreCase(String)}. The last few dozen terms
+     * stay compiled, so that repeated terms are not compiled again, a term seldom repeated costs a skip table per call.
+     * When the same searchTerm is checked against many sources, prefer holding on to {@link #compileIgnoreCase(String)}
+     * </p>
      *
      * @param source     the source to be searched
      * @param searchTerm the term to search
      * @return true if searchTerm is found in source, otherwise false. Also false if either or both params are null
+     * @see #compileIgnoreCase(String)
      */
     public static boolean containsIgnoreCase(String source, String searchTerm) {
         if (isAnyEmpty(source, searchTerm)) {
             return false;
         }
+        if (searchTerm.length() > source.length()) {
+            return false;
+        }
+        return IgnoreCaseMatcher.cached(searchTerm).contains(source);
+    }
 
-        final int length = size(searchTerm);
-//        if (length == 0)
-//            return true; // Empty string is contained
-
-        final char firstLo = Character.toLowerCase(get(searchTerm, 0));
-        final char firstUp = Character.toUpperCase(get(searchTerm, 0));
+    /**
+     * Compile searchTerm into a reusable case insensitive matcher.<br>
+     * The skip table is built once, the matcher can then be used on any number of sources from any thread.
+     * <p>
+     * Usage: <code>compileIgnoreCase("error").contains(line)</code>
+     * </p>
+     *
+     * @param searchTerm the term to search
+     * @return matcher for searchTerm, never null. If searchTerm is null or empty, the matcher never matches
+     * @see #containsIgnoreCase(String, String)
+     */
+    public static IgnoreCaseMatcher compileIgnoreCase(String searchTerm) {
+        return new IgnoreCaseMatcher(isEmpty(searchTerm) ? null : searchTerm);
+    }
 
-        for (int i = size(source) - length; i >= 0; i--) {
-            // Quick check before calling the more expensive regionMatches() method:
-            final char ch = get(source, i);
-            if (ch != firstLo && ch != firstUp)
-                continue;
 
-            if (source.regionMatches(true, i, searchTerm, 0, length))
-                return true;
-        }
+    /**
+     * Compile searchTerms into a reusable matcher, which finds all the terms in a single pass over the source.<br>
+     * The matcher is immutable and can be shared between threads.
+     * <p>
+     * Usage: <code>compileKeywords(terms).containsAny(source)</code>
+     * </p>
+     *
+     * @param searchTerms the terms to search, null and empty terms are ignored
+     * @return matcher for searchTerms, never null. If there are no terms, the matcher never matches
+     * @see #compileKeywordsIgnoreCase(Collection)
+     * @see #contains(String, String)
+     */
+    public static KeywordMatcher compileKeywords(Collection<String> searchTerms) {
+        return new KeywordMatcher(searchTerms, false);
+    }
 
-        return false;
+    /**
+     * Compile searchTerms into a reusable matcher ignoring case, which finds all the terms in a single pass over the source.<br>
+     * The matcher is immutable and can be shared between threads.
+     * <p>
+     * Usage: <code>compileKeywordsIgnoreCase(terms).containsAny(source)</code>
+     * </p>
+     *
+     * @param searchTerms the terms to search, null and empty terms are ignored
+     * @return matcher for searchTerms, never null. If there are no terms, the matcher never matches
+     * @see #compileKeywords(Collection)
+     * @see #containsIgnoreCase(String, String)
+     */
+    public static KeywordMatcher compileKeywordsIgnoreCase(Collection<String> searchTerms) {
+        return new KeywordMatcher(searchTerms, true);
     }
 
 
@@ -515,28 +784,86 @@ public class JUtil {
 
     /**
      * Get string out of Collection
+     * <p>
+     * same as calling {@link #stringify(String, Collection, int, int) stringify(message,collection,NO_LIMIT,NO_LIMIT)}
+     * </p>
      *
      * @param message    Optional prefix text
      * @param collection The collection
      * @return Stringified collection
      */
     public static String stringify(String message, Collection collection) {
-        StringBuilder sb = new StringBuilder();
-        try {
-            if (!isEmpty(message)) {
-                sb.append(message).append(":\n");
-            }
+        return stringify(message, collection, NO_LIMIT, NO_LIMIT);
+    }
 
-            if (collection != null) {
-                for (Object o : collection) {
-                    sb.append("e= ").append(o);
-                }
+    /**
+     * Get string out of Collection, bounded in size
+     * <p>
+     * Usage: <code>stringify("users", users, 100, 4096)</code>, safe to call on a collection of any size
+     * </p>
+     *
+     * @param message     Optional prefix text
+     * @param collection  The collection
+     * @param maxElements elements written at most, {@link #NO_LIMIT} for all
+     * @param maxChars    characters written at most, not counting the {@link #TRUNCATION_MARKER}. {@link #NO_LIMIT} for all
+     * @return Stringified collection, ending with the {@link #TRUNCATION_MARKER} if cut short. null if failed
+     * @see #stringify(Appendable, String, Collection, int, int)
+     */
+    public static String stringify(String message, Collection<?> collection, int maxElements, int maxChars) {
+        try {
+            StringBuilder sb = ScratchBuffers.builder(Stringifier.estimateLength(message, Stringifier.sizeHint(collection), maxElements, maxChars));
+            try {
+                stringify(sb, message, collection, maxElements, maxChars);
+                return sb.toString();
+            } finally {
+                ScratchBuffers.release(sb);
             }
-            return sb.toString();
         } catch (Throwable e) {
-            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Write the string of a Collection, in a single pass and bounded in size
+     * <p>
+     * Nothing is read from the collection once a limit is reached, so dumping a huge collection costs no more than the limits.
+     * The count of elements left out follows the marker unless the size is not constant time, as for concurrent queues and skip lists
+     * </p>
+     *
+     * @param out         where to write to Eg. a StringBuilder or a Writer
+     * @param message     Optional prefix text
+     * @param collection  The collection
+     * @param maxElements elements written at most, {@link #NO_LIMIT} for all
+     * @param maxChars    characters written at most, not counting the {@link #TRUNCATION_MARKER}. {@link #NO_LIMIT} for all
+     * @throws IOException if out throws
+     */
+    public static void stringify(Appendable out, String message, Collection<?> collection, int maxElements, int maxChars) throws IOException {
+        Stringifier stringifier = new Stringifier(out, maxElements, maxChars);
+        stringifier.writeMessage(message);
+        if (collection != null) {
+            stringifier.writeCollection(collection);
+        }
+    }
+
+    /**
+     * Write the string of a Collection as UTF-8, in a single pass and bounded in size
+     *
+     * @param out         where to write to, flushed but not closed
+     * @param message     Optional prefix text
+     * @param collection  The collection
+     * @param maxElements elements written at most, {@link #NO_LIMIT} for all
+     * @param maxChars    characters written at most, not counting the {@link #TRUNCATION_MARKER}. {@link #NO_LIMIT} for all
+     * @throws IOException if out throws
+     * @see #stringify(Appendable, String, Collection, int, int)
+     */
+    public static void stringify(OutputStream out, String message, Collection<?> collection, int maxElements, int maxChars) throws IOException {
+        Stringifier.Utf8Output utf8 = new Stringifier.Utf8Output(out);
+        try {
+            stringify(utf8, message, collection, maxElements, maxChars);
+            utf8.flush();
+        } finally {
+            utf8.release();
         }
-        return null;
     }
 
     /**
@@ -554,29 +881,86 @@ public class JUtil {
 
     /**
      * Get string out of Map
+     * <p>
+     * same as calling {@link #stringify(String, Map, int, int) stringify(message,map,NO_LIMIT,NO_LIMIT)}
+     * </p>
      *
      * @param message Optional prefix text
      * @param map     The Map
      * @return Stringified map
      */
     public static String stringify(String message, Map map) {
-        StringBuilder sb = new StringBuilder();
-        try {
-            if (!isEmpty(message)) {
-                sb.append(message).append(":\n");
-            }
+        return stringify(message, map, NO_LIMIT, NO_LIMIT);
+    }
 
-            if (map != null) {
-                for (Object o : map.keySet()) {
-                    sb.append("key = ").append(o).append(" , value = ").append(map.get(o));
-                }
+    /**
+     * Get string out of Map, bounded in size
+     * <p>
+     * Usage: <code>stringify("cache", cache, 100, 4096)</code>, safe to call on a map of any size
+     * </p>
+     *
+     * @param message     Optional prefix text
+     * @param map         The Map
+     * @param maxElements entries written at most, {@link #NO_LIMIT} for all
+     * @param maxChars    characters written at most, not counting the {@link #TRUNCATION_MARKER}. {@link #NO_LIMIT} for all
+     * @return Stringified map, ending with the {@link #TRUNCATION_MARKER} if cut short. null if failed
+     * @see #stringify(Appendable, String, Map, int, int)
+     */
+    public static String stringify(String message, Map<?, ?> map, int maxElements, int maxChars) {
+        try {
+            StringBuilder sb = ScratchBuffers.builder(Stringifier.estimateLength(message, Stringifier.sizeHint(map), maxElements, maxChars));
+            try {
+                stringify(sb, message, map, maxElements, maxChars);
+                return sb.toString();
+            } finally {
+                ScratchBuffers.release(sb);
             }
-            return sb.toString();
         } catch (Throwable e) {
-            e.printStackTrace();
+            return null;
         }
-        return null;
+    }
 
+    /**
+     * Write the string of a Map, in a single pass over its entries and bounded in size
+     * <p>
+     * Nothing is read from the map once a limit is reached, so dumping a huge map costs no more than the limits.
+     * The count of elements left out follows the marker unless the size is not constant time, as for concurrent queues and skip lists
+     * </p>
+     *
+     * @param out         where to write to Eg. a StringBuilder or a Writer
+     * @param message     Optional prefix text
+     * @param map         The Map
+     * @param maxElements entries written at most, {@link #NO_LIMIT} for all
+     * @param maxChars    characters written at most, not counting the {@link #TRUNCATION_MARKER}. {@link #NO_LIMIT} for all
+     * @throws IOException if out throws
+     */
+    public static void stringify(Appendable out, String message, Map<?, ?> map, int maxElements, int maxChars) throws IOException {
+        Stringifier stringifier = new Stringifier(out, maxElements, maxChars);
+        stringifier.writeMessage(message);
+        if (map != null) {
+            stringifier.writeMap(map);
+        }
+    }
+
+    /**
+     * Write the string of a Map as UTF-8, in a single pass over its entries and bounded in size
+     *
+     * @param out         where to write to, flushed but not closed
+     * @param message     Optional prefix text
+     * @param map         The Map
+     * @param maxElements entries written at most, {@link #NO_LIMIT} for all
+     * @param maxChars    characters written at most, not counting the {@link #TRUNCATION_MARKER}. {@link #NO_LIMIT} for all
+     * @throws IOException if out throws
+     * @see #stringify(Appendable, String, Map, int, int)
+     */
+    public static void stringify(OutputStream out, String message, Map<?, ?> map, int maxElements, int maxChars) throws IOException {
+        Stringifier.Utf8Output utf8 = new Stringifier.Utf8Output(out);
+        try {
+            stringify(utf8, message, map, maxElements, maxChars);
+            utf8.flush();
+        } finally {
+            utf8.release();
+        }
     }
 
     /**
@@ -598,81 +982,209 @@ public class JUtil {
      * Usage: <code>isAnyEmpty(string1,string2,string3,string4)</code><br>
      * Usage: <code>isAnyEmpty(collection,map,string,charSequence,object)</code>
      * </p>
+     * Blank CharSequences, empty Collections, Maps and arrays, and absent Optionals are empty, as are the types given to
+     * {@link #registerEmptinessCheck(Class, EmptinessCheck)}. Up to 6 objects, prefer the fixed arity overloads,
+     * which do not allocate an array
      *
      * @param objects objects to be checked
      * @return true, if any of the object passed is null or empty, false otherwise
      */
     public static boolean isAnyEmpty(Object... objects) {
-        if (objects == null || size(objects) == 0) {
+        if (objects == null || objects.length == 0) {
             return true;
         }
-
         for (Object o : objects) {
-            if (o == null) {
+            if (EmptinessChecks.isEmpty(o)) {
                 return true;
-            } else {
-                if (o instanceof Collection) {
-                    if (isEmpty((Collection) o)) {
-                        return true;
-                    }
-                } else if (o instanceof Map) {
-                    if (isEmpty((Map) o)) {
-                        return true;
-                    }
-                } else if (o instanceof String) {
-                    if (isEmpty((String) o)) {
-                        return true;
-                    }
-                } else if (o instanceof CharSequence) {
-                    if (isEmpty((CharSequence) o)) {
-                        return true;
-                    }
-                }
             }
         }
         return false;
     }
 
+    /**
+     * Is any object passed is null or empty, same as {@link #isAnyEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @return true, if any of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAnyEmpty(Object a, Object b) {
+        return EmptinessChecks.isEmpty(a) || EmptinessChecks.isEmpty(b);
+    }
+
+    /**
+     * Is any object passed is null or empty, same as {@link #isAnyEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @param c object to be checked
+     * @return true, if any of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAnyEmpty(Object a, Object b, Object c) {
+        return EmptinessChecks.isEmpty(a) || EmptinessChecks.isEmpty(b) || EmptinessChecks.isEmpty(c);
+    }
+
+    /**
+     * Is any object passed is null or empty, same as {@link #isAnyEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @param c object to be checked
+     * @param d object to be checked
+     * @return true, if any of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAnyEmpty(Object a, Object b, Object c, Object d) {
+        return isAnyEmpty(a, b, c) || EmptinessChecks.isEmpty(d);
+    }
+
+    /**
+     * Is any object passed is null or empty, same as {@link #isAnyEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @param c object to be checked
+     * @param d object to be checked
+     * @param e object to be checked
+     * @return true, if any of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAnyEmpty(Object a, Object b, Object c, Object d, Object e) {
+        return isAnyEmpty(a, b, c) || EmptinessChecks.isEmpty(d) || EmptinessChecks.isEmpty(e);
+    }
+
+    /**
+     * Is any object passed is null or empty, same as {@link #isAnyEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @param c object to be checked
+     * @param d object to be checked
+     * @param e object to be checked
+     * @param f object to be checked
+     * @return true, if any of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAnyEmpty(Object a, Object b, Object c, Object d, Object e, Object f) {
+        return isAnyEmpty(a, b, c) || isAnyEmpty(d, e, f);
+    }
+
     /**
      * Are all the object passed is null or empty.<br>
      * <p>
-     * Usage: <code>isAnyEmpty(string1,string2,string3,string4)</code><br>
-     * Usage: <code>isAnyEmpty(collection,map,string,charSequence,object)</code>
+     * Usage: <code>isAllEmpty(string1,string2,string3,string4)</code><br>
+     * Usage: <code>isAllEmpty(collection,map,string,charSequence,object)</code>
      * </p>
+     * Empty means the same as for {@link #isAnyEmpty(Object...)}. Up to 6 objects, prefer the fixed arity overloads,
+     * which do not allocate an array
      *
      * @param objects objects to be checked
      * @return true, if all of the object passed is null or empty, false otherwise
      */
     public static boolean isAllEmpty(Object... objects) {
-        if (objects == null || size(objects) == 0) {
+        if (objects == null || objects.length == 0) {
             return true;
         }
         for (Object o : objects) {
-            if (o != null) {
-                if (o instanceof Collection) {
-                    if (!isEmpty((Collection) o)) {
-                        return false;
-                    }
-                } else if (o instanceof Map) {
-                    if (!isEmpty((Map) o)) {
-                        return false;
-                    }
-                } else if (o instanceof String) {
-                    if (!isEmpty((String) o)) {
-                        return false;
-                    }
-                } else if (o instanceof CharSequence) {
-                    if (!isEmpty((CharSequence) o)) {
-                        return false;
-                    }
-                } else {
-                    return false;
-                }
+            if (!EmptinessChecks.isEmpty(o)) {
+                return false;
             }
         }
         return true;
     }
 
+    /**
+     * Are all the object passed is null or empty, same as {@link #isAllEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @return true, if all of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAllEmpty(Object a, Object b) {
+        return EmptinessChecks.isEmpty(a) && EmptinessChecks.isEmpty(b);
+    }
+
+    /**
+     * Are all the object passed is null or empty, same as {@link #isAllEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @param c object to be checked
+     * @return true, if all of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAllEmpty(Object a, Object b, Object c) {
+        return EmptinessChecks.isEmpty(a) && EmptinessChecks.isEmpty(b) && EmptinessChecks.isEmpty(c);
+    }
+
+    /**
+     * Are all the object passed is null or empty, same as {@link #isAllEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @param c object to be checked
+     * @param d object to be checked
+     * @return true, if all of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAllEmpty(Object a, Object b, Object c, Object d) {
+        return isAllEmpty(a, b, c) && EmptinessChecks.isEmpty(d);
+    }
+
+    /**
+     * Are all the object passed is null or empty, same as {@link #isAllEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @param c object to be checked
+     * @param d object to be checked
+     * @param e object to be checked
+     * @return true, if all of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAllEmpty(Object a, Object b, Object c, Object d, Object e) {
+        return isAllEmpty(a, b, c) && EmptinessChecks.isEmpty(d) && EmptinessChecks.isEmpty(e);
+    }
+
+    /**
+     * Are all the object passed is null or empty, same as {@link #isAllEmpty(Object...)} without the array
+     *
+     * @param a object to be checked
+     * @param b object to be checked
+     * @param c object to be checked
+     * @param d object to be checked
+     * @param e object to be checked
+     * @param f object to be checked
+     * @return true, if all of the object passed is null or empty, false otherwise
+     */
+    public static boolean isAllEmpty(Object a, Object b, Object c, Object d, Object e, Object f) {
+        return isAllEmpty(a, b, c) && isAllEmpty(d, e, f);
+    }
+
+    /**
+     * Teach {@link #isAnyEmpty(Object...)} and {@link #isAllEmpty(Object...)} what empty means for a type of your own.
+     * Applies to subtypes as well, and replaces the built in check if the type already has one
+     * <p>
+     * Usage: <code>registerEmptinessCheck(Money.class, new EmptinessCheck&lt;Money&gt;() {...})</code>
+     * </p>
+     *
+     * @param type  the type
+     * @param check decides whether a non null instance is empty, must be thread safe
+     */
+    public static <T> void registerEmptinessCheck(Class<T> type, EmptinessCheck<? super T> check) {
+        if (type != null && check != null) {
+            EmptinessChecks.register(type, check);
+        }
+    }
+
+    /**
+     * Decides whether an instance of a type is empty
+     *
+     * @see #registerEmptinessCheck(Class, EmptinessCheck)
+     */
+    public interface EmptinessCheck<T> {
+
+        /**
+         * @param value the value, never null
+         * @return true if the value is empty
+         */
+        boolean isEmpty(T value);
+    }
+
 
     /**
      * Get string from an object
@@ -705,42 +1217,169 @@ public class JUtil {
     }
 
     /**
-     * Get empty mutable hashMap
+     * Get string from an object, deduplicated
+     * <p>
+     * Same as {@link #getString(Object)}, but repeated values come back as one cached instance.
+     * A CharSequence is looked up in place, trimmed, so nothing is allocated unless the value is new to the cache
+     * </p>
+     * <p>
+     * Usage: <code>getString(charSequence, StringInterner.SHARED)</code>
+     * </p>
+     *
+     * @param o        The object
+     * @param interner the cache to use, none if null
+     * @return <code>null</code> if object is null, otherwise a string representation of the object
+     * @see StringInterner
+     */
+    public static String getString(Object o, StringInterner interner) {
+        if (interner == null) {
+            return getString(o);
+        }
+        if (o == null) {
+            return null;
+        }
+        CharSequence cs = o instanceof CharSequence ? (CharSequence) o : o.toString();
+        if (cs == null) {
+            return null;
+        }
+        int length = cs.length();
+        int start = trimStart(cs, 0, length);
+        return interner.intern(cs, start, trimEnd(cs, start, length));
+    }
+
+    /**
+     * Get string from an object, deduplicated
+     *
+     * @param o        The object
+     * @param interner the cache to use, none if null
+     * @return empty string if object is null, otherwise a string representation of the object
+     * @see #getString(Object, StringInterner)
+     */
+    public static String getStringSafe(Object o, StringInterner interner) {
+        String s = getString(o, interner);
+        return s == null ? EMPTY_STRING : s;
+    }
+
+    /**
+     * Get empty mutable map
+     * <p>
+     * same as calling {@link #emptyMapMutable(int) emptyMapMutable(0)}
+     * </p>
      *
-     * @return mutable hashMap
+     * @return mutable map
      */
     public static Map<String, String> emptyMapMutable() {
-        return new HashMap<>();
+        return emptyMapMutable(0);
     }
 
     /**
-     * Get empty mutable hashSet
+     * Get empty mutable map, sized for the expected number of entries so that it never resizes on the way
      *
-     * @return mutable hashSet
+     * @param expectedSize number of entries expected
+     * @return mutable map, a {@link CompactStringMap}
+     */
+    public static Map<String, String> emptyMapMutable(int expectedSize) {
+        return new CompactStringMap(expectedSize);
+    }
+
+    /**
+     * Get empty mutable set
+     * <p>
+     * same as calling {@link #emptySetMutable(int) emptySetMutable(0)}
+     * </p>
+     *
+     * @return mutable set
      */
     public static Set<String> emptySetMutable() {
-        return new HashSet<>();
+        return emptySetMutable(0);
+    }
+
+    /**
+     * Get empty mutable set, sized for the expected number of elements so that it never resizes on the way
+     *
+     * @param expectedSize number of elements expected
+     * @return mutable set, a {@link CompactStringSet}
+     */
+    public static Set<String> emptySetMutable(int expectedSize) {
+        return new CompactStringSet(expectedSize);
+    }
+
+    /**
+     * Does the charSequence contain only characters which {@link String#trim()} would remove?
+     * Scans in place, without copying.
+     *
+     * @param cs The charSequence, not null
+     * @return true if every character is <code>&lt;= ' '</code>
+     */
+    static boolean isBlank(CharSequence cs) {
+        for (int i = 0, length = cs.length(); i < length; i++) {
+            if (cs.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index of the first character in the range which {@link String#trim()} would keep
+     *
+     * @param cs    The charSequence, not null
+     * @param start start of the range, inclusive
+     * @param end   end of the range, exclusive
+     * @return index of the first non whitespace character, <code>end</code> if there is none
+     */
+    static int trimStart(CharSequence cs, int start, int end) {
+        while (start < end && cs.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Index after the last character in the range which {@link String#trim()} would keep
+     *
+     * @param cs    The charSequence, not null
+     * @param start start of the range, inclusive
+     * @param end   end of the range, exclusive
+     * @return index after the last non whitespace character, <code>start</code> if there is none
+     */
+    static int trimEnd(CharSequence cs, int start, int end) {
+        while (end > start && cs.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Length the charSequence would have after {@link String#trim()}, without copying it
+     *
+     * @param cs The charSequence, not null
+     * @return trimmed length
+     */
+    static int trimmedLength(CharSequence cs) {
+        int length = cs.length();
+        int start = trimStart(cs, 0, length);
+        return trimEnd(cs, start, length) - start;
     }
 
     /**
      * Safe url encode. <br>
      * Translates a string into {@code x-www-form-urlencoded}
      * format.
+     * <p>
+     * The codec of the encoding is cached, and a string which needs no escaping is returned as the same instance
+     * </p>
      *
      * @param s   String to UrlEncode
-     * @param enc The name of a supported character encoding.
-     * @return Url encoded string
+     * @param enc The name of a supported character encoding, the platform default is used if not supported
+     * @return Url encoded string, null if s is null
+     * @see UrlCodec
      */
     public static String safeUrlEncode(String s, String enc) {
-        try {
-            return java.net.URLEncoder.encode(s, enc);
-        } catch (Throwable t) {
-            try {
-                //noinspection deprecation
-                return java.net.URLEncoder.encode(s);
-            } catch (Throwable tFailSafe) {
-                return s;
-            }
+        UrlCodec codec = UrlCodec.forCharset(enc);
+        if (codec == null) {
+            codec = UrlCodec.forCharset(Charset.defaultCharset().name());
         }
+        return codec.encode(s);
     }
 }
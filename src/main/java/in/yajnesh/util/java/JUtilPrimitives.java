@@ -0,0 +1,382 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+//generated from src/template/java/in/yajnesh/util/java/JUtilPrimitives.java.template by ./gradlew generatePrimitiveArrays, do not edit
+
+/**
+ * Safe accessors for the eight primitive array types, inherited by {@link JUtil}.
+ * <p>
+ * Every method works on the array as is, without boxing or allocating, and returns the caller's default
+ * instead of throwing. Usage: <code>JUtil.get(longs, 5, -1L)</code>
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+class JUtilPrimitives {
+
+    JUtilPrimitives() {
+    }
+
+    /**
+     * Safely get an item from boolean array
+     *
+     * @param array        The array
+     * @param index        the index at which the item needs to be fetched
+     * @param defaultValue in case of array is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     */
+    public static boolean get(boolean[] array, int index, boolean defaultValue) {
+        return array == null || index < 0 || index >= array.length ? defaultValue : array[index];
+    }
+
+    /**
+     * Safely get last item from boolean array
+     *
+     * @param array        The array
+     * @param defaultValue in case of array is null or empty, return this value
+     * @return last item if found, defaultValue otherwise
+     */
+    public static boolean getLastItem(boolean[] array, boolean defaultValue) {
+        return array == null || array.length == 0 ? defaultValue : array[array.length - 1];
+    }
+
+    /**
+     * Get the size of boolean array
+     *
+     * @param array The array
+     * @return 0 if the array is null, actual size of the array otherwise
+     */
+    public static int size(boolean[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * Is the boolean array null or empty?
+     *
+     * @param array The array
+     * @return true if the array is null or empty
+     */
+    public static boolean isEmpty(boolean[] array) {
+        return array == null || array.length == 0;
+    }
+
+    /**
+     * Safely get an item from byte array
+     *
+     * @param array        The array
+     * @param index        the index at which the item needs to be fetched
+     * @param defaultValue in case of array is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     */
+    public static byte get(byte[] array, int index, byte defaultValue) {
+        return array == null || index < 0 || index >= array.length ? defaultValue : array[index];
+    }
+
+    /**
+     * Safely get last item from byte array
+     *
+     * @param array        The array
+     * @param defaultValue in case of array is null or empty, return this value
+     * @return last item if found, defaultValue otherwise
+     */
+    public static byte getLastItem(byte[] array, byte defaultValue) {
+        return array == null || array.length == 0 ? defaultValue : array[array.length - 1];
+    }
+
+    /**
+     * Get the size of byte array
+     *
+     * @param array The array
+     * @return 0 if the array is null, actual size of the array otherwise
+     */
+    public static int size(byte[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * Is the byte array null or empty?
+     *
+     * @param array The array
+     * @return true if the array is null or empty
+     */
+    public static boolean isEmpty(byte[] array) {
+        return array == null || array.length == 0;
+    }
+
+    /**
+     * Safely get an item from char array
+     *
+     * @param array        The array
+     * @param index        the index at which the item needs to be fetched
+     * @param defaultValue in case of array is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     */
+    public static char get(char[] array, int index, char defaultValue) {
+        return array == null || index < 0 || index >= array.length ? defaultValue : array[index];
+    }
+
+    /**
+     * Safely get last item from char array
+     *
+     * @param array        The array
+     * @param defaultValue in case of array is null or empty, return this value
+     * @return last item if found, defaultValue otherwise
+     */
+    public static char getLastItem(char[] array, char defaultValue) {
+        return array == null || array.length == 0 ? defaultValue : array[array.length - 1];
+    }
+
+    /**
+     * Get the size of char array
+     *
+     * @param array The array
+     * @return 0 if the array is null, actual size of the array otherwise
+     */
+    public static int size(char[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * Is the char array null or empty?
+     *
+     * @param array The array
+     * @return true if the array is null or empty
+     */
+    public static boolean isEmpty(char[] array) {
+        return array == null || array.length == 0;
+    }
+
+    /**
+     * Safely get an item from short array
+     *
+     * @param array        The array
+     * @param index        the index at which the item needs to be fetched
+     * @param defaultValue in case of array is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     */
+    public static short get(short[] array, int index, short defaultValue) {
+        return array == null || index < 0 || index >= array.length ? defaultValue : array[index];
+    }
+
+    /**
+     * Safely get last item from short array
+     *
+     * @param array        The array
+     * @param defaultValue in case of array is null or empty, return this value
+     * @return last item if found, defaultValue otherwise
+     */
+    public static short getLastItem(short[] array, short defaultValue) {
+        return array == null || array.length == 0 ? defaultValue : array[array.length - 1];
+    }
+
+    /**
+     * Get the size of short array
+     *
+     * @param array The array
+     * @return 0 if the array is null, actual size of the array otherwise
+     */
+    public static int size(short[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * Is the short array null or empty?
+     *
+     * @param array The array
+     * @return true if the array is null or empty
+     */
+    public static boolean isEmpty(short[] array) {
+        return array == null || array.length == 0;
+    }
+
+    /**
+     * Safely get an item from int array
+     *
+     * @param array        The array
+     * @param index        the index at which the item needs to be fetched
+     * @param defaultValue in case of array is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     */
+    public static int get(int[] array, int index, int defaultValue) {
+        return array == null || index < 0 || index >= array.length ? defaultValue : array[index];
+    }
+
+    /**
+     * Safely get last item from int array
+     *
+     * @param array        The array
+     * @param defaultValue in case of array is null or empty, return this value
+     * @return last item if found, defaultValue otherwise
+     */
+    public static int getLastItem(int[] array, int defaultValue) {
+        return array == null || array.length == 0 ? defaultValue : array[array.length - 1];
+    }
+
+    /**
+     * Get the size of int array
+     *
+     * @param array The array
+     * @return 0 if the array is null, actual size of the array otherwise
+     */
+    public static int size(int[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * Is the int array null or empty?
+     *
+     * @param array The array
+     * @return true if the array is null or empty
+     */
+    public static boolean isEmpty(int[] array) {
+        return array == null || array.length == 0;
+    }
+
+    /**
+     * Safely get an item from long array
+     *
+     * @param array        The array
+     * @param index        the index at which the item needs to be fetched
+     * @param defaultValue in case of array is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     */
+    public static long get(long[] array, int index, long defaultValue) {
+        return array == null || index < 0 || index >= array.length ? defaultValue : array[index];
+    }
+
+    /**
+     * Safely get last item from long array
+     *
+     * @param array        The array
+     * @param defaultValue in case of array is null or empty, return this value
+     * @return last item if found, defaultValue otherwise
+     */
+    public static long getLastItem(long[] array, long defaultValue) {
+        return array == null || array.length == 0 ? defaultValue : array[array.length - 1];
+    }
+
+    /**
+     * Get the size of long array
+     *
+     * @param array The array
+     * @return 0 if the array is null, actual size of the array otherwise
+     */
+    public static int size(long[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * Is the long array null or empty?
+     *
+     * @param array The array
+     * @return true if the array is null or empty
+     */
+    public static boolean isEmpty(long[] array) {
+        return array == null || array.length == 0;
+    }
+
+    /**
+     * Safely get an item from float array
+     *
+     * @param array        The array
+     * @param index        the index at which the item needs to be fetched
+     * @param defaultValue in case of array is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     */
+    public static float get(float[] array, int index, float defaultValue) {
+        return array == null || index < 0 || index >= array.length ? defaultValue : array[index];
+    }
+
+    /**
+     * Safely get last item from float array
+     *
+     * @param array        The array
+     * @param defaultValue in case of array is null or empty, return this value
+     * @return last item if found, defaultValue otherwise
+     */
+    public static float getLastItem(float[] array, float defaultValue) {
+        return array == null || array.length == 0 ? defaultValue : array[array.length - 1];
+    }
+
+    /**
+     * Get the size of float array
+     *
+     * @param array The array
+     * @return 0 if the array is null, actual size of the array otherwise
+     */
+    public static int size(float[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * Is the float array null or empty?
+     *
+     * @param array The array
+     * @return true if the array is null or empty
+     */
+    public static boolean isEmpty(float[] array) {
+        return array == null || array.length == 0;
+    }
+
+    /**
+     * Safely get an item from double array
+     *
+     * @param array        The array
+     * @param index        the index at which the item needs to be fetched
+     * @param defaultValue in case of array is null or index out of bound, return this value
+     * @return item if found, defaultValue otherwise
+     */
+    public static double get(double[] array, int index, double defaultValue) {
+        return array == null || index < 0 || index >= array.length ? defaultValue : array[index];
+    }
+
+    /**
+     * Safely get last item from double array
+     *
+     * @param array        The array
+     * @param defaultValue in case of array is null or empty, return this value
+     * @return last item if found, defaultValue otherwise
+     */
+    public static double getLastItem(double[] array, double defaultValue) {
+        return array == null || array.length == 0 ? defaultValue : array[array.length - 1];
+    }
+
+    /**
+     * Get the size of double array
+     *
+     * @param array The array
+     * @return 0 if the array is null, actual size of the array otherwise
+     */
+    public static int size(double[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * Is the double array null or empty?
+     *
+     * @param array The array
+     * @return true if the array is null or empty
+     */
+    public static boolean isEmpty(double[] array) {
+        return array == null || array.length == 0;
+    }
+}
@@ -0,0 +1,316 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Matches many search terms at once, in a single pass over the source (Aho-Corasick).
+ * <p>
+ * The automaton is built once, in {@link JUtil#compileKeywords(Collection)} or
+ * {@link JUtil#compileKeywordsIgnoreCase(Collection)}, and is immutable afterwards,
+ * so a single instance can be shared between all threads.
+ * </p>
+ * <p>
+ * Usage: <code>KeywordMatcher blocked = JUtil.compileKeywordsIgnoreCase(terms); blocked.containsAny(message);</code>
+ * </p>
+ *
+ * @author Yajnesh T
+ * @see JUtil#compileKeywords(Collection)
+ * @see JUtil#compileKeywordsIgnoreCase(Collection)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class KeywordMatcher {
+
+    private final boolean ignoreCase;
+
+    /**
+     * terms, indexed by the term index stored in {@link #termAt}
+     */
+    private final String[] terms;
+
+    /**
+     * per state, sorted edge characters and the state each edge leads to
+     */
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+
+    /**
+     * per state, the longest proper suffix which is also a state
+     */
+    private final int[] failure;
+
+    /**
+     * per state, index of the term ending at the state, -1 if none
+     */
+    private final int[] termAt;
+
+    /**
+     * per state, nearest state in the failure chain where a term ends, -1 if none
+     */
+    private final int[] outputLink;
+
+    KeywordMatcher(Collection<String> searchTerms, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+
+        List<String> termList = new ArrayList<>();
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> termAtList = new ArrayList<>();
+        trie.add(new TreeMap<Character, Integer>());
+        termAtList.add(-1);
+
+        if (searchTerms != null) {
+            for (String term : searchTerms) {
+                if (JUtil.isEmpty(term)) {
+                    continue;
+                }
+                int state = 0;
+                for (int i = 0; i < term.length(); i++) {
+                    char c = fold(term.charAt(i));
+                    Integer next = trie.get(state).get(c);
+                    if (next == null) {
+                        next = trie.size();
+                        trie.get(state).put(c, next);
+                        trie.add(new TreeMap<Character, Integer>());
+                        termAtList.add(-1);
+                    }
+                    state = next;
+                }
+                //duplicate terms are reported once, as the first one added
+                if (termAtList.get(state) < 0) {
+                    termAtList.set(state, termList.size());
+                    termList.add(term);
+                }
+            }
+        }
+
+        int states = trie.size();
+        terms = termList.toArray(new String[termList.size()]);
+        edgeChars = new char[states][];
+        edgeTargets = new int[states][];
+        termAt = new int[states];
+        for (int s = 0; s < states; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            edgeChars[s] = new char[edges.size()];
+            edgeTargets[s] = new int[edges.size()];
+            int e = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[s][e] = edge.getKey();
+                edgeTargets[s][e] = edge.getValue();
+                e++;
+            }
+            termAt[s] = termAtList.get(s);
+        }
+
+        //breadth first, so that the failure of every shorter state is known before it is needed
+        failure = new int[states];
+        outputLink = new int[states];
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            int f = failure[s];
+            outputLink[s] = termAt[f] >= 0 ? f : outputLink[f];
+            for (int e = 0; e < edgeChars[s].length; e++) {
+                char c = edgeChars[s][e];
+                int child = edgeTargets[s][e];
+                int fallback = f;
+                int next = step(fallback, c);
+                while (next < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                    next = step(fallback, c);
+                }
+                failure[child] = next < 0 ? 0 : next;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Is this matcher ignoring case?
+     *
+     * @return true if compiled with {@link JUtil#compileKeywordsIgnoreCase(Collection)}
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * Get the terms this matcher was compiled for, null, empty and duplicate terms are left out
+     *
+     * @return unmodifiable list of terms
+     */
+    public List<String> getTerms() {
+        return Collections.unmodifiableList(Arrays.asList(terms));
+    }
+
+    /**
+     * Does source has any of the terms in it?
+     *
+     * @param source the source to be searched
+     * @return true if any term is found in source, otherwise false. Also false if source is null or there are no terms
+     */
+    public boolean containsAny(CharSequence source) {
+        if (source == null || terms.length == 0) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0, length = source.length(); i < length; i++) {
+            state = next(state, fold(source.charAt(i)));
+            if (termAt[state] >= 0 || outputLink[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find all the occurrences of all the terms in source, overlapping occurrences included
+     *
+     * @param source the source to be searched
+     * @return matches, ordered by their end index. Empty list if nothing is found, never null
+     */
+    public List<Match> findAll(CharSequence source) {
+        if (source == null || terms.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Match> matches = null;
+        int state = 0;
+        for (int i = 0, length = source.length(); i < length; i++) {
+            state = next(state, fold(source.charAt(i)));
+            for (int s = termAt[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                if (matches == null) {
+                    matches = new ArrayList<>();
+                }
+                String term = terms[termAt[s]];
+                matches.add(new Match(term, i + 1 - term.length(), i + 1));
+            }
+        }
+        return matches == null ? Collections.<Match>emptyList() : matches;
+    }
+
+    /**
+     * Find which of the terms occur in source, each term is reported once
+     *
+     * @param source the source to be searched
+     * @return terms found, in the order they were first found. Empty list if nothing is found, never null
+     */
+    public List<String> findTerms(CharSequence source) {
+        List<Match> matches = findAll(source);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, Boolean> found = new LinkedHashMap<>();
+        for (Match match : matches) {
+            found.put(match.getTerm(), Boolean.TRUE);
+        }
+        return new ArrayList<>(found.keySet());
+    }
+
+    private int next(int state, char c) {
+        int next = step(state, c);
+        while (next < 0 && state != 0) {
+            state = failure[state];
+            next = step(state, c);
+        }
+        return next < 0 ? 0 : next;
+    }
+
+    private int step(int state, char c) {
+        int e = Arrays.binarySearch(edgeChars[state], c);
+        return e < 0 ? -1 : edgeTargets[state][e];
+    }
+
+    private char fold(char c) {
+        return ignoreCase ? IgnoreCaseMatcher.fold(c) : c;
+    }
+
+    @Override
+    public String toString() {
+        return "KeywordMatcher{" + terms.length + " terms" + (ignoreCase ? ", ignoreCase" : "") + "}";
+    }
+
+    /**
+     * One occurrence of a term in the source
+     */
+    public static final class Match {
+
+        private final String term;
+        private final int start;
+        private final int end;
+
+        Match(String term, int start, int end) {
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @return the term found, as passed while compiling
+         */
+        public String getTerm() {
+            return term;
+        }
+
+        /**
+         * @return index in source where the match starts, inclusive
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return index in source where the match ends, exclusive
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Match)) {
+                return false;
+            }
+            Match m = (Match) o;
+            return start == m.start && end == m.end && term.equals(m.term);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * term.hashCode() + start) + end;
+        }
+
+        @Override
+        public String toString() {
+            return term + "[" + start + "," + end + ")";
+        }
+    }
+}
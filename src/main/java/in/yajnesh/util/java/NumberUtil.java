@@ -19,6 +19,9 @@ along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
 (ɔ) Yajnesh T
 */
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 /**
  * Collection of number util methods
  *
@@ -27,6 +30,51 @@ along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
 @SuppressWarnings({"WeakerAccess", "unused"})
 public class NumberUtil {
 
+    /**
+     * Parse status, the text is a valid number within range
+     */
+    public static final int PARSE_OK = 0;
+
+    /**
+     * Parse status, the text is null, empty or only a sign
+     */
+    public static final int PARSE_EMPTY = 1;
+
+    /**
+     * Parse status, the text has a character which is not a digit, or the range is out of bounds
+     */
+    public static final int PARSE_INVALID = 2;
+
+    /**
+     * Parse status, the text is a valid number, but out of range for the type
+     */
+    public static final int PARSE_OVERFLOW = 3;
+
+    /**
+     * Group separator meaning no grouping, for the formatting methods
+     */
+    public static final char NO_GROUPING = '\0';
+
+    /**
+     * Longest text of a long, without padding or grouping. <code>"-9223372036854775808"</code>
+     */
+    public static final int MAX_LONG_LENGTH = 20;
+
+    /**
+     * Most decimal places written by the fixed formatting methods
+     */
+    public static final int MAX_DECIMALS = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final double TWO_POW_52 = 4503599627370496.0;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
     /**
      * Get Integer from String
      *
@@ -34,12 +82,12 @@ public class NumberUtil {
      * @return an Integer object holding the value represented by the string argument, null in case of failure
      */
     public static Integer getInt(String number) {
-        try {
-            return JUtil.isEmpty(number) ? null : Integer.valueOf(number);
-        } catch (NumberFormatException e) {
-            e.printStackTrace();
+        if (number == null) {
             return null;
         }
+        //any value outside the int range can be used to detect the failure
+        long value = parseLong(number, 0, number.length(), Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE);
+        return value == Long.MIN_VALUE ? null : Integer.valueOf((int) value);
     }
 
     /**
@@ -49,8 +97,7 @@ public class NumberUtil {
      * @return an int holding the value represented by the string argument, 0 in case of failure
      */
     public static int getIntSafe(String number) {
-        Integer i = getInt(number);
-        return i == null ? 0 : i;
+        return number == null ? 0 : parseInt(number, 0, number.length(), 0);
     }
 
     /**
@@ -60,12 +107,15 @@ public class NumberUtil {
      * @return a Double object holding the value represented by the string argument, null in case of failure
      */
     public static Double getDouble(String number) {
-        try {
-            return JUtil.isEmpty(number) ? null : Double.valueOf(number);
-        } catch (NumberFormatException e) {
-            e.printStackTrace();
+        if (number == null) {
+            return null;
+        }
+        double value = parseDouble(number, 0, number.length(), Double.NaN);
+        //NaN is either the failure or the actual value, parsing again with another default tells them apart
+        if (Double.isNaN(value) && parseDouble(number, 0, number.length(), 0) == 0) {
             return null;
         }
+        return value;
     }
 
     /**
@@ -75,8 +125,7 @@ public class NumberUtil {
      * @return a double holding the value represented by the string argument, 0 in case of failure
      */
     public static double getDoubleSafe(String number) {
-        Double i = getDouble(number);
-        return i == null ? 0 : i;
+        return number == null ? 0 : parseDouble(number, 0, number.length(), 0);
     }
 
     /**
@@ -86,12 +135,15 @@ public class NumberUtil {
      * @return a Long object holding the value represented by the string argument, null in case of failure
      */
     public static Long getLong(String number) {
-        try {
-            return JUtil.isEmpty(number) ? null : Long.valueOf(number);
-        } catch (NumberFormatException e) {
-            e.printStackTrace();
+        if (number == null) {
+            return null;
+        }
+        long value = parseLong(number, 0, number.length(), Long.MIN_VALUE);
+        //Long.MIN_VALUE is either the failure or the actual value, parsing again with another default tells them apart
+        if (value == Long.MIN_VALUE && parseLong(number, 0, number.length(), Long.MAX_VALUE) == Long.MAX_VALUE) {
             return null;
         }
+        return value;
     }
 
     /**
@@ -101,7 +153,704 @@ public class NumberUtil {
      * @return a long holding the value represented by the string argument, 0 in case of failure
      */
     public static long getLongSafe(String number) {
-        Long i = getLong(number);
-        return i == null ? 0 : i;
+        return number == null ? 0 : parseLong(number, 0, number.length(), 0);
+    }
+
+    /**
+     * Parse an int from a range of the charSequence, without creating a String and without throwing.
+     * <p>
+     * Accepts the same text as {@link Integer#parseInt(String)}: an optional sign followed by digits, no whitespace.
+     * </p>
+     *
+     * @param cs           text holding the number Eg. <code>"id=1234"</code>
+     * @param start        start of the number, inclusive Eg. <code>3</code>
+     * @param end          end of the number, exclusive Eg. <code>7</code>
+     * @param defaultValue returned in case of failure
+     * @return the int represented by the range, defaultValue in case of null, empty, invalid or overflowing text
+     * @see #checkInt(CharSequence, int, int)
+     */
+    public static int parseInt(CharSequence cs, int start, int end, int defaultValue) {
+        return (int) parseLong(cs, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Parse a long from a range of the charSequence, without creating a String and without throwing.
+     * <p>
+     * Accepts the same text as {@link Long#parseLong(String)}: an optional sign followed by digits, no whitespace.
+     * </p>
+     *
+     * @param cs           text holding the number Eg. <code>"id=1234"</code>
+     * @param start        start of the number, inclusive Eg. <code>3</code>
+     * @param end          end of the number, exclusive Eg. <code>7</code>
+     * @param defaultValue returned in case of failure
+     * @return the long represented by the range, defaultValue in case of null, empty, invalid or overflowing text
+     * @see #checkLong(CharSequence, int, int)
+     */
+    public static long parseLong(CharSequence cs, int start, int end, long defaultValue) {
+        return parseLong(cs, start, end, Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Parse a double from a range of the charSequence, correctly rounded, without throwing.
+     * <p>
+     * Accepts the same text as {@link Double#parseDouble(String)}, plain decimals like <code>"-1234.56e-7"</code>
+     * take a fast path which does not create a String.
+     * </p>
+     *
+     * @param cs           text holding the number Eg. <code>"price=1234.56"</code>
+     * @param start        start of the number, inclusive Eg. <code>6</code>
+     * @param end          end of the number, exclusive Eg. <code>13</code>
+     * @param defaultValue returned in case of failure
+     * @return the double represented by the range, defaultValue in case of null, empty or invalid text
+     */
+    public static double parseDouble(CharSequence cs, int start, int end, double defaultValue) {
+        return DoubleParser.parse(cs, start, end, defaultValue);
+    }
+
+    /**
+     * Parse a double from a range of the char array, correctly rounded, without throwing.
+     *
+     * @param chars        characters holding the number
+     * @param start        start of the number, inclusive
+     * @param end          end of the number, exclusive
+     * @param defaultValue returned in case of failure
+     * @return the double represented by the range, defaultValue in case of null, empty or invalid text
+     * @see #parseDouble(CharSequence, int, int, double)
+     */
+    public static double parseDouble(char[] chars, int start, int end, double defaultValue) {
+        return DoubleParser.parse(chars, start, end, defaultValue);
+    }
+
+    /**
+     * Parse a double from a range of ASCII bytes, correctly rounded, without throwing.
+     *
+     * @param bytes        ASCII bytes holding the number, Eg. a field of a CSV file
+     * @param start        start of the number, inclusive
+     * @param end          end of the number, exclusive
+     * @param defaultValue returned in case of failure
+     * @return the double represented by the range, defaultValue in case of null, empty or invalid text
+     * @see #parseDouble(CharSequence, int, int, double)
+     */
+    public static double parseDouble(byte[] bytes, int start, int end, double defaultValue) {
+        return DoubleParser.parse(bytes, start, end, defaultValue);
+    }
+
+    /**
+     * Parse a delimited payload of ints Eg. <code>"1,2,3"</code> into an array
+     * <p>
+     * same as calling <code>new DelimitedNumberParser(delimiter).parseInts(cs, 0, null)</code>,
+     * use {@link DelimitedNumberParser} directly to get the failures or to configure parallel parsing
+     * </p>
+     *
+     * @param cs        the delimited payload
+     * @param delimiter field delimiter, line breaks always separate fields as well
+     * @return one int per field, 0 for fields which cannot be parsed. Empty array if cs is null
+     */
+    public static int[] parseInts(CharSequence cs, char delimiter) {
+        return new DelimitedNumberParser(delimiter).parseInts(cs, 0, null);
+    }
+
+    /**
+     * Parse a delimited payload of longs Eg. <code>"1,2,3"</code> into an array
+     * <p>
+     * same as calling <code>new DelimitedNumberParser(delimiter).parseLongs(cs, 0, null)</code>,
+     * use {@link DelimitedNumberParser} directly to get the failures or to configure parallel parsing
+     * </p>
+     *
+     * @param cs        the delimited payload
+     * @param delimiter field delimiter, line breaks always separate fields as well
+     * @return one long per field, 0 for fields which cannot be parsed. Empty array if cs is null
+     */
+    public static long[] parseLongs(CharSequence cs, char delimiter) {
+        return new DelimitedNumberParser(delimiter).parseLongs(cs, 0, null);
+    }
+
+    /**
+     * Parse a delimited payload of doubles Eg. <code>"1.5,2,3e2"</code> into an array
+     * <p>
+     * same as calling <code>new DelimitedNumberParser(delimiter).parseDoubles(cs, 0, null)</code>,
+     * use {@link DelimitedNumberParser} directly to get the failures or to configure parallel parsing
+     * </p>
+     *
+     * @param cs        the delimited payload
+     * @param delimiter field delimiter, line breaks always separate fields as well
+     * @return one double per field, 0 for fields which cannot be parsed. Empty array if cs is null
+     */
+    public static double[] parseDoubles(CharSequence cs, char delimiter) {
+        return new DelimitedNumberParser(delimiter).parseDoubles(cs, 0, null);
+    }
+
+    /**
+     * Why would {@link #parseInt(CharSequence, int, int, int)} fail on the range?
+     *
+     * @param cs    text holding the number
+     * @param start start of the number, inclusive
+     * @param end   end of the number, exclusive
+     * @return {@link #PARSE_OK}, {@link #PARSE_EMPTY}, {@link #PARSE_INVALID} or {@link #PARSE_OVERFLOW}
+     */
+    public static int checkInt(CharSequence cs, int start, int end) {
+        return check(cs, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Why would {@link #parseLong(CharSequence, int, int, long)} fail on the range?
+     *
+     * @param cs    text holding the number
+     * @param start start of the number, inclusive
+     * @param end   end of the number, exclusive
+     * @return {@link #PARSE_OK}, {@link #PARSE_EMPTY}, {@link #PARSE_INVALID} or {@link #PARSE_OVERFLOW}
+     */
+    public static int checkLong(CharSequence cs, int start, int end) {
+        return check(cs, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Format a whole number, same as {@link String#valueOf(long)} with padding and grouping
+     * <p>
+     * Usage: <code>formatLong(1234567, 0, ',')</code> gives <code>"1,234,567"</code>, <code>formatLong(-42, 4, NO_GROUPING)</code>
+     * gives <code>"-0042"</code>
+     * </p>
+     *
+     * @param value          the value, int values too
+     * @param minDigits      zero padded to at least this many digits, the sign is not counted
+     * @param groupSeparator put between groups of 3 digits, padding zeros included. {@link #NO_GROUPING} for none
+     * @return the text
+     */
+    public static String formatLong(long value, int minDigits, char groupSeparator) {
+        int length = longLength(value, minDigits, groupSeparator);
+        char[] buffer = ScratchBuffers.chars(length);
+        try {
+            writeLong(buffer, 0, value, minDigits, groupSeparator);
+            return new String(buffer, 0, length);
+        } finally {
+            ScratchBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Append a whole number with padding and grouping, without creating a String
+     *
+     * @param sb             the builder to append to
+     * @param value          the value, int values too
+     * @param minDigits      zero padded to at least this many digits, the sign is not counted
+     * @param groupSeparator put between groups of 3 digits, padding zeros included. {@link #NO_GROUPING} for none
+     * @return the same builder
+     * @see #formatLong(long, int, char)
+     */
+    public static StringBuilder appendLong(StringBuilder sb, long value, int minDigits, char groupSeparator) {
+        int start = sb.length();
+        int length = longLength(value, minDigits, groupSeparator);
+        sb.setLength(start + length);
+        fill(sb, start + length, value < 0 ? value : -value, digits(value, minDigits), groupSeparator);
+        if (value < 0) {
+            sb.setCharAt(start, '-');
+        }
+        return sb;
+    }
+
+    /**
+     * Write a whole number, same as {@link String#valueOf(long)}
+     *
+     * @param buffer destination, needs {@link #MAX_LONG_LENGTH} chars from offset at most
+     * @param offset where to write
+     * @param value  the value, int values too
+     * @return offset after the text
+     */
+    public static int writeLong(char[] buffer, int offset, long value) {
+        return writeLong(buffer, offset, value, 1, NO_GROUPING);
+    }
+
+    /**
+     * Write a whole number with padding and grouping
+     *
+     * @param buffer         destination, needs room for the text from offset
+     * @param offset         where to write
+     * @param value          the value, int values too
+     * @param minDigits      zero padded to at least this many digits, the sign is not counted
+     * @param groupSeparator put between groups of 3 digits, padding zeros included. {@link #NO_GROUPING} for none
+     * @return offset after the text
+     * @see #formatLong(long, int, char)
+     */
+    public static int writeLong(char[] buffer, int offset, long value, int minDigits, char groupSeparator) {
+        int end = offset + longLength(value, minDigits, groupSeparator);
+        fill(buffer, end, value < 0 ? value : -value, digits(value, minDigits), groupSeparator);
+        if (value < 0) {
+            buffer[offset] = '-';
+        }
+        return end;
+    }
+
+    /**
+     * Write a whole number as ASCII, same as {@link String#valueOf(long)}
+     *
+     * @param buffer destination, needs {@link #MAX_LONG_LENGTH} bytes from offset at most
+     * @param offset where to write
+     * @param value  the value, int values too
+     * @return offset after the text
+     */
+    public static int writeLong(byte[] buffer, int offset, long value) {
+        return writeLong(buffer, offset, value, 1, NO_GROUPING);
+    }
+
+    /**
+     * Write a whole number as ASCII with padding and grouping
+     *
+     * @param buffer         destination, needs room for the text from offset
+     * @param offset         where to write
+     * @param value          the value, int values too
+     * @param minDigits      zero padded to at least this many digits, the sign is not counted
+     * @param groupSeparator ASCII character put between groups of 3 digits, padding zeros included. {@link #NO_GROUPING} for none
+     * @return offset after the text
+     * @see #formatLong(long, int, char)
+     */
+    public static int writeLong(byte[] buffer, int offset, long value, int minDigits, char groupSeparator) {
+        int end = offset + longLength(value, minDigits, groupSeparator);
+        fill(buffer, end, value < 0 ? value : -value, digits(value, minDigits), groupSeparator);
+        if (value < 0) {
+            buffer[offset] = '-';
+        }
+        return end;
+    }
+
+    /**
+     * Format a decimal number with a fixed number of decimal places, same as <code>String.format("%.2f", value)</code>
+     * for 2 places: rounded half up, NaN and Infinity spelled out
+     *
+     * @param value    the value
+     * @param decimals decimal places, 0 to {@link #MAX_DECIMALS}
+     * @return the text
+     */
+    public static String formatFixed(double value, int decimals) {
+        StringBuilder sb = ScratchBuffers.builder(MAX_LONG_LENGTH + decimals + 1);
+        try {
+            return appendFixed(sb, value, decimals, 1, NO_GROUPING).toString();
+        } finally {
+            ScratchBuffers.release(sb);
+        }
+    }
+
+    /**
+     * Append a decimal number with a fixed number of decimal places, without creating a String
+     *
+     * @param sb       the builder to append to
+     * @param value    the value
+     * @param decimals decimal places, 0 to {@link #MAX_DECIMALS}
+     * @return the same builder
+     * @see #formatFixed(double, int)
+     */
+    public static StringBuilder appendFixed(StringBuilder sb, double value, int decimals) {
+        return appendFixed(sb, value, decimals, 1, NO_GROUPING);
+    }
+
+    /**
+     * Append a decimal number with a fixed number of decimal places, padding and grouping, without creating a String.
+     * <p>
+     * Usage: <code>appendFixed(sb, 1234.5, 2, 0, ',')</code> appends <code>"1,234.50"</code>
+     * </p>
+     *
+     * @param sb             the builder to append to
+     * @param value          the value
+     * @param decimals       decimal places, 0 to {@link #MAX_DECIMALS}
+     * @param minDigits      integer part zero padded to at least this many digits, the sign is not counted
+     * @param groupSeparator put between groups of 3 digits of the integer part. {@link #NO_GROUPING} for none
+     * @return the same builder
+     * @see #formatFixed(double, int)
+     */
+    public static StringBuilder appendFixed(StringBuilder sb, double value, int decimals, int minDigits, char groupSeparator) {
+        decimals = Math.min(Math.max(decimals, 0), MAX_DECIMALS);
+        long scaled = roundFixed(value, decimals);
+        if (scaled < 0) {
+            return sb.append(formatFixedSlow(value, decimals, minDigits, groupSeparator));
+        }
+        long integer = scaled / POWERS_OF_TEN[decimals];
+        boolean negative = isNegative(value);
+        int digits = digits(integer, minDigits);
+        int integerLength = (negative ? 1 : 0) + digits + groups(digits, groupSeparator);
+        int start = sb.length();
+        sb.setLength(start + integerLength + (decimals > 0 ? decimals + 1 : 0));
+        fill(sb, start + integerLength, -integer, digits, groupSeparator);
+        if (negative) {
+            sb.setCharAt(start, '-');
+        }
+        if (decimals > 0) {
+            sb.setCharAt(start + integerLength, '.');
+            fill(sb, sb.length(), -(scaled % POWERS_OF_TEN[decimals]), decimals, NO_GROUPING);
+        }
+        return sb;
+    }
+
+    /**
+     * Write a decimal number with a fixed number of decimal places
+     *
+     * @param buffer   destination, needs room for the text from offset
+     * @param offset   where to write
+     * @param value    the value
+     * @param decimals decimal places, 0 to {@link #MAX_DECIMALS}
+     * @return offset after the text
+     * @see #formatFixed(double, int)
+     */
+    public static int writeFixed(char[] buffer, int offset, double value, int decimals) {
+        return writeFixed(buffer, offset, value, decimals, 1, NO_GROUPING);
+    }
+
+    /**
+     * Write a decimal number with a fixed number of decimal places, padding and grouping
+     *
+     * @param buffer         destination, needs room for the text from offset
+     * @param offset         where to write
+     * @param value          the value
+     * @param decimals       decimal places, 0 to {@link #MAX_DECIMALS}
+     * @param minDigits      integer part zero padded to at least this many digits, the sign is not counted
+     * @param groupSeparator put between groups of 3 digits of the integer part. {@link #NO_GROUPING} for none
+     * @return offset after the text
+     * @see #appendFixed(StringBuilder, double, int, int, char)
+     */
+    public static int writeFixed(char[] buffer, int offset, double value, int decimals, int minDigits, char groupSeparator) {
+        decimals = Math.min(Math.max(decimals, 0), MAX_DECIMALS);
+        long scaled = roundFixed(value, decimals);
+        if (scaled < 0) {
+            String text = formatFixedSlow(value, decimals, minDigits, groupSeparator);
+            text.getChars(0, text.length(), buffer, offset);
+            return offset + text.length();
+        }
+        long integer = scaled / POWERS_OF_TEN[decimals];
+        int digits = digits(integer, minDigits);
+        if (isNegative(value)) {
+            buffer[offset++] = '-';
+        }
+        offset += digits + groups(digits, groupSeparator);
+        fill(buffer, offset, -integer, digits, groupSeparator);
+        if (decimals > 0) {
+            buffer[offset] = '.';
+            offset += decimals + 1;
+            fill(buffer, offset, -(scaled % POWERS_OF_TEN[decimals]), decimals, NO_GROUPING);
+        }
+        return offset;
+    }
+
+    /**
+     * Write a decimal number as ASCII, with a fixed number of decimal places
+     *
+     * @param buffer   destination, needs room for the text from offset
+     * @param offset   where to write
+     * @param value    the value
+     * @param decimals decimal places, 0 to {@link #MAX_DECIMALS}
+     * @return offset after the text
+     * @see #formatFixed(double, int)
+     */
+    public static int writeFixed(byte[] buffer, int offset, double value, int decimals) {
+        return writeFixed(buffer, offset, value, decimals, 1, NO_GROUPING);
+    }
+
+    /**
+     * Write a decimal number as ASCII, with a fixed number of decimal places, padding and grouping
+     *
+     * @param buffer         destination, needs room for the text from offset
+     * @param offset         where to write
+     * @param value          the value
+     * @param decimals       decimal places, 0 to {@link #MAX_DECIMALS}
+     * @param minDigits      integer part zero padded to at least this many digits, the sign is not counted
+     * @param groupSeparator ASCII character put between groups of 3 digits of the integer part. {@link #NO_GROUPING} for none
+     * @return offset after the text
+     * @see #appendFixed(StringBuilder, double, int, int, char)
+     */
+    public static int writeFixed(byte[] buffer, int offset, double value, int decimals, int minDigits, char groupSeparator) {
+        decimals = Math.min(Math.max(decimals, 0), MAX_DECIMALS);
+        long scaled = roundFixed(value, decimals);
+        if (scaled < 0) {
+            String text = formatFixedSlow(value, decimals, minDigits, groupSeparator);
+            for (int i = 0; i < text.length(); i++) {
+                buffer[offset++] = (byte) text.charAt(i);
+            }
+            return offset;
+        }
+        long integer = scaled / POWERS_OF_TEN[decimals];
+        int digits = digits(integer, minDigits);
+        if (isNegative(value)) {
+            buffer[offset++] = '-';
+        }
+        offset += digits + groups(digits, groupSeparator);
+        fill(buffer, offset, -integer, digits, groupSeparator);
+        if (decimals > 0) {
+            buffer[offset] = '.';
+            offset += decimals + 1;
+            fill(buffer, offset, -(scaled % POWERS_OF_TEN[decimals]), decimals, NO_GROUPING);
+        }
+        return offset;
+    }
+
+    /**
+     * Parse a whole number within [min, max].<br>
+     * Accumulates negatively, the same way as {@link Long#parseLong(String)}, so that min itself can be parsed.
+     */
+    static long parseLong(CharSequence cs, int start, int end, long min, long max, long defaultValue) {
+        if (cs == null || start < 0 || end > cs.length() || start >= end) {
+            return defaultValue;
+        }
+        boolean negative = false;
+        char first = cs.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++start == end) {
+                return defaultValue;
+            }
+        }
+        final long limit = negative ? min : -max;
+        final long multMin = limit / 10;
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = digit(cs.charAt(i));
+            if (digit < 0 || result < multMin) {
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static int check(CharSequence cs, int start, int end, long min, long max) {
+        if (cs == null || start == end) {
+            return PARSE_EMPTY;
+        }
+        if (start < 0 || end > cs.length() || start > end) {
+            return PARSE_INVALID;
+        }
+        boolean negative = false;
+        char first = cs.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++start == end) {
+                return PARSE_EMPTY;
+            }
+        }
+        final long limit = negative ? min : -max;
+        final long multMin = limit / 10;
+        long result = 0;
+        int status = PARSE_OK;
+        for (int i = start; i < end; i++) {
+            int digit = digit(cs.charAt(i));
+            if (digit < 0) {
+                return PARSE_INVALID;
+            }
+            if (status == PARSE_OK) {
+                //keep scanning after an overflow, a bad character further on makes it invalid instead
+                if (result < multMin || result * 10 < limit + digit) {
+                    status = PARSE_OVERFLOW;
+                } else {
+                    result = result * 10 - digit;
+                }
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Decimal value of the character, ASCII digits first, then any other unicode digit
+     *
+     * @param c the character
+     * @return 0 to 9, -1 if c is not a digit
+     */
+    static int digit(char c) {
+        int digit = c - '0';
+        if (digit >= 0 && digit <= 9) {
+            return digit;
+        }
+        return c < 128 ? -1 : Character.digit(c, 10);
+    }
+
+    /**
+     * Length of the whole number formatted
+     */
+    private static int longLength(long value, int minDigits, char groupSeparator) {
+        int digits = digits(value, minDigits);
+        return (value < 0 ? 1 : 0) + digits + groups(digits, groupSeparator);
+    }
+
+    /**
+     * @return digits of the value, at least minDigits
+     */
+    private static int digits(long value, int minDigits) {
+        long negative = value < 0 ? value : -value;
+        int digits = 19;
+        for (int n = 1; n < 19; n++) {
+            if (negative > -POWERS_OF_TEN[n]) {
+                digits = n;
+                break;
+            }
+        }
+        return Math.max(digits, minDigits);
+    }
+
+    private static int groups(int digits, char groupSeparator) {
+        return groupSeparator == NO_GROUPING ? 0 : (digits - 1) / 3;
+    }
+
+    /**
+     * Write the digits backwards, ending at end. Works on the negated value, the same way as {@link Long#toString(long)},
+     * so that {@link Long#MIN_VALUE} needs no special case. Two digits at a time when not grouping
+     */
+    private static void fill(char[] buffer, int end, long negative, int digits, char groupSeparator) {
+        int k = end;
+        int written = 0;
+        if (groupSeparator == NO_GROUPING) {
+            while (negative <= -100) {
+                long q = negative / 100;
+                int r = (int) (q * 100 - negative);
+                negative = q;
+                buffer[--k] = TimeUtil.DIGIT_ONES[r];
+                buffer[--k] = TimeUtil.DIGIT_TENS[r];
+                written += 2;
+            }
+            int r = (int) -negative;
+            buffer[--k] = TimeUtil.DIGIT_ONES[r];
+            written++;
+            if (r >= 10) {
+                buffer[--k] = TimeUtil.DIGIT_TENS[r];
+                written++;
+            }
+            while (written < digits) {
+                buffer[--k] = '0';
+                written++;
+            }
+            return;
+        }
+        for (; written < digits; written++) {
+            if (written > 0 && written % 3 == 0) {
+                buffer[--k] = groupSeparator;
+            }
+            buffer[--k] = (char) ('0' - negative % 10);
+            negative /= 10;
+        }
+    }
+
+    /**
+     * same as {@link #fill(char[], int, long, int, char)}, into ASCII bytes
+     */
+    private static void fill(byte[] buffer, int end, long negative, int digits, char groupSeparator) {
+        int k = end;
+        int written = 0;
+        if (groupSeparator == NO_GROUPING) {
+            while (negative <= -100) {
+                long q = negative / 100;
+                int r = (int) (q * 100 - negative);
+                negative = q;
+                buffer[--k] = (byte) TimeUtil.DIGIT_ONES[r];
+                buffer[--k] = (byte) TimeUtil.DIGIT_TENS[r];
+                written += 2;
+            }
+            int r = (int) -negative;
+            buffer[--k] = (byte) TimeUtil.DIGIT_ONES[r];
+            written++;
+            if (r >= 10) {
+                buffer[--k] = (byte) TimeUtil.DIGIT_TENS[r];
+                written++;
+            }
+            while (written < digits) {
+                buffer[--k] = '0';
+                written++;
+            }
+            return;
+        }
+        for (; written < digits; written++) {
+            if (written > 0 && written % 3 == 0) {
+                buffer[--k] = (byte) groupSeparator;
+            }
+            buffer[--k] = (byte) ('0' - negative % 10);
+            negative /= 10;
+        }
+    }
+
+    /**
+     * same as {@link #fill(char[], int, long, int, char)}, into the builder which already has the room
+     */
+    private static void fill(StringBuilder sb, int end, long negative, int digits, char groupSeparator) {
+        int k = end;
+        int written = 0;
+        if (groupSeparator == NO_GROUPING) {
+            while (negative <= -100) {
+                long q = negative / 100;
+                int r = (int) (q * 100 - negative);
+                negative = q;
+                sb.setCharAt(--k, TimeUtil.DIGIT_ONES[r]);
+                sb.setCharAt(--k, TimeUtil.DIGIT_TENS[r]);
+                written += 2;
+            }
+            int r = (int) -negative;
+            sb.setCharAt(--k, TimeUtil.DIGIT_ONES[r]);
+            written++;
+            if (r >= 10) {
+                sb.setCharAt(--k, TimeUtil.DIGIT_TENS[r]);
+                written++;
+            }
+            while (written < digits) {
+                sb.setCharAt(--k, '0');
+                written++;
+            }
+            return;
+        }
+        for (; written < digits; written++) {
+            if (written > 0 && written % 3 == 0) {
+                sb.setCharAt(--k, groupSeparator);
+            }
+            sb.setCharAt(--k, (char) ('0' - negative % 10));
+            negative /= 10;
+        }
+    }
+
+    /**
+     * Round the magnitude to the decimal places, half up on the shortest decimal form of the value as String.format does
+     *
+     * @return the magnitude times 10^decimals, or -1 if too large, NaN or infinite
+     */
+    private static long roundFixed(double value, int decimals) {
+        double scaled = Math.abs(value) * POWERS_OF_TEN[decimals];
+        if (!(scaled < TWO_POW_52)) {
+            return -1;
+        }
+        long floor = (long) scaled;
+        double fraction = scaled - floor;
+        //the shortest decimal form may be on the other side of a tie than the double itself, BigDecimal decides those
+        if (Math.abs(fraction - 0.5) <= 4 * Math.ulp(scaled)) {
+            return new BigDecimal(Double.toString(Math.abs(value))).setScale(decimals, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+        return fraction < 0.5 ? floor : floor + 1;
+    }
+
+    /**
+     * Format through BigDecimal, for the values too large to scale into a long, NaN and infinity
+     */
+    private static String formatFixedSlow(double value, int decimals, int minDigits, char groupSeparator) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Infinity" : "-Infinity";
+        }
+        String plain = new BigDecimal(Double.toString(Math.abs(value))).setScale(decimals, RoundingMode.HALF_UP).toPlainString();
+        int integerEnd = decimals > 0 ? plain.length() - decimals - 1 : plain.length();
+        int digits = Math.max(integerEnd, minDigits);
+        StringBuilder sb = new StringBuilder(plain.length() + digits + digits / 3 + 1);
+        if (isNegative(value)) {
+            sb.append('-');
+        }
+        for (int i = 0; i < digits; i++) {
+            if (i > 0 && groupSeparator != NO_GROUPING && (digits - i) % 3 == 0) {
+                sb.append(groupSeparator);
+            }
+            int k = i - (digits - integerEnd);
+            sb.append(k < 0 ? '0' : plain.charAt(k));
+        }
+        return sb.append(plain, integerEnd, plain.length()).toString();
+    }
+
+    /**
+     * @return true for negative values, -0.0 included, which String.format writes with a sign as well
+     */
+    private static boolean isNegative(double value) {
+        return value < 0 || value == 0 && Double.doubleToRawLongBits(value) < 0;
     }
 }
@@ -0,0 +1,379 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Streams the rows of a delimited numeric file (CSV, TSV..), parsing fields straight from the bytes.
+ * <p>
+ * The file is read one window at a time, so memory use is bounded by the window size whatever the file size,
+ * and no line is ever turned into a String. Fields are parsed with {@link NumberUtil} only when asked for.
+ * </p>
+ * <p>
+ * Windows are either read into a single reused buffer, or memory mapped, which saves the copy from the page cache.
+ * A mapped window is unmapped as soon as its rows have been visited, before the next one is mapped,
+ * so that neither the address space nor the resident pages grow with the file.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * {@code
+ * new NumericFileReader(file, ',', true).forEachRow(new NumericFileReader.RowVisitor() {
+ *     public boolean visitRow(long rowIndex, NumericFileReader.Row row) {
+ *         total += row.getDouble(2, 0);
+ *         return true;
+ *     }
+ * });}
+ * </pre>
+ * Instances only hold the configuration, every traversal opens and closes the file itself.
+ *
+ * @author Yajnesh T
+ * @see DelimitedNumberParser
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class NumericFileReader {
+
+    /**
+     * Size of the window, unless configured otherwise. A line may not be longer than the window
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 8 << 20;
+
+    private final File file;
+    private final char delimiter;
+    private final boolean hasHeader;
+    private final int windowSize;
+    private final boolean memoryMapped;
+
+    /**
+     * @param file      the file to read
+     * @param delimiter field delimiter Eg. <code>','</code> or <code>'\t'</code>
+     * @param hasHeader true to skip the first line
+     */
+    public NumericFileReader(File file, char delimiter, boolean hasHeader) {
+        this(file, delimiter, hasHeader, DEFAULT_WINDOW_SIZE, false);
+    }
+
+    /**
+     * @param file         the file to read
+     * @param delimiter    field delimiter Eg. <code>','</code> or <code>'\t'</code>
+     * @param hasHeader    true to skip the first line
+     * @param windowSize   bytes read at a time, bounds the memory used. A line may not be longer than this
+     * @param memoryMapped true to memory map the windows instead of reading them into a reused buffer
+     */
+    public NumericFileReader(File file, char delimiter, boolean hasHeader, int windowSize, boolean memoryMapped) {
+        this.file = file;
+        this.delimiter = delimiter;
+        this.hasHeader = hasHeader;
+        this.windowSize = Math.max(windowSize, 1);
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * Visit every row of the file, in order. Blank lines are skipped
+     *
+     * @param visitor called for every row, the row passed is reused and only valid during the call.
+     *                It must not be kept past the call, in memory mapped mode the window it reads from is unmapped afterwards
+     * @return number of rows visited
+     * @throws IOException if the file cannot be read, or has a line longer than the window size
+     */
+    public long forEachRow(RowVisitor visitor) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            final long size = channel.size();
+            final Row row = new Row(delimiter);
+            //a heap array is copied into once, but then reads much faster than a direct buffer
+            final byte[] array = memoryMapped ? null : new byte[(int) Math.min(windowSize, size)];
+            final ByteBuffer buffer = memoryMapped ? null : ByteBuffer.wrap(array);
+            final ByteArraySequence arrayWindow = memoryMapped ? null : new ByteArraySequence(array);
+            boolean skip = hasHeader;
+            long rowIndex = 0;
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                MappedByteBuffer mapped = null;
+                if (memoryMapped) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    row.window = new ByteBufferSequence(mapped, 0, length);
+                } else {
+                    buffer.clear().limit(length);
+                    //a single read may return less than asked for
+                    int read = 0;
+                    while (buffer.hasRemaining() && read >= 0) {
+                        read = channel.read(buffer, position + buffer.position());
+                    }
+                    length = buffer.position();
+                    row.window = arrayWindow;
+                }
+                boolean lastWindow = position + length >= size;
+
+                int lineStart = 0;
+                try {
+                    for (int i = 0; i <= length; i++) {
+                        if (i < length ? row.window.charAt(i) != '\n' : !lastWindow || lineStart == length) {
+                            continue;
+                        }
+                        //a line, the last one of the file may not end with a line break
+                        if (row.split(lineStart, i)) {
+                            if (skip) {
+                                skip = false;
+                            } else if (!visitor.visitRow(rowIndex++, row)) {
+                                return rowIndex;
+                            }
+                        }
+                        lineStart = i + 1;
+                    }
+                    if (lineStart == 0 && !lastWindow) {
+                        throw new IOException("Line longer than the window size " + windowSize + " at byte " + position);
+                    }
+                } finally {
+                    if (mapped != null) {
+                        //a row kept past its visit reads null instead of unmapped memory
+                        row.window = null;
+                        DirectBuffers.free(mapped);
+                    }
+                }
+                //the incomplete last line is read again at the start of the next window
+                position += Math.min(lineStart, length);
+            }
+            return rowIndex;
+        }
+    }
+
+    /**
+     * Visit a single column of longs, in chunks of consecutive rows
+     *
+     * @param column       index of the column, 0 based
+     * @param defaultValue value of the fields which cannot be parsed or do not exist
+     * @param chunkSize    rows per chunk, the chunk array is allocated once and reused
+     * @param visitor      called for every chunk
+     * @return number of rows visited
+     * @throws IOException if the file cannot be read
+     */
+    public long forEachLongChunk(final int column, final long defaultValue, int chunkSize, final LongChunkVisitor visitor) throws IOException {
+        final long[] values = new long[Math.max(chunkSize, 1)];
+        final int[] count = {0};
+        final long[] firstRow = {0};
+        final boolean[] stopped = {false};
+        long rows = forEachRow(new RowVisitor() {
+            @Override
+            public boolean visitRow(long rowIndex, Row row) {
+                values[count[0]++] = row.getLong(column, defaultValue);
+                if (count[0] == values.length) {
+                    boolean more = visitor.visitChunk(firstRow[0], values, count[0]);
+                    firstRow[0] += count[0];
+                    count[0] = 0;
+                    stopped[0] = !more;
+                    return more;
+                }
+                return true;
+            }
+        });
+        if (count[0] > 0 && !stopped[0]) {
+            visitor.visitChunk(firstRow[0], values, count[0]);
+        }
+        return rows;
+    }
+
+    /**
+     * Visit a single column of doubles, in chunks of consecutive rows
+     *
+     * @param column       index of the column, 0 based
+     * @param defaultValue value of the fields which cannot be parsed or do not exist
+     * @param chunkSize    rows per chunk, the chunk array is allocated once and reused
+     * @param visitor      called for every chunk
+     * @return number of rows visited
+     * @throws IOException if the file cannot be read
+     */
+    public long forEachDoubleChunk(final int column, final double defaultValue, int chunkSize, final DoubleChunkVisitor visitor) throws IOException {
+        final double[] values = new double[Math.max(chunkSize, 1)];
+        final int[] count = {0};
+        final long[] firstRow = {0};
+        final boolean[] stopped = {false};
+        long rows = forEachRow(new RowVisitor() {
+            @Override
+            public boolean visitRow(long rowIndex, Row row) {
+                values[count[0]++] = row.getDouble(column, defaultValue);
+                if (count[0] == values.length) {
+                    boolean more = visitor.visitChunk(firstRow[0], values, count[0]);
+                    firstRow[0] += count[0];
+                    count[0] = 0;
+                    stopped[0] = !more;
+                    return more;
+                }
+                return true;
+            }
+        });
+        if (count[0] > 0 && !stopped[0]) {
+            visitor.visitChunk(firstRow[0], values, count[0]);
+        }
+        return rows;
+    }
+
+    /**
+     * Called for every row of the file
+     */
+    public interface RowVisitor {
+
+        /**
+         * @param rowIndex index of the row, 0 based, the header is not counted
+         * @param row      the row, reused and only valid during the call
+         * @return true to continue, false to stop reading
+         */
+        boolean visitRow(long rowIndex, Row row);
+    }
+
+    /**
+     * Called for every chunk of a long column
+     */
+    public interface LongChunkVisitor {
+
+        /**
+         * @param firstRow index of the first row in the chunk
+         * @param values   the values, reused for the next chunk
+         * @param count    number of values filled in, the last chunk may be partial
+         * @return true to continue, false to stop reading
+         */
+        boolean visitChunk(long firstRow, long[] values, int count);
+    }
+
+    /**
+     * Called for every chunk of a double column
+     */
+    public interface DoubleChunkVisitor {
+
+        /**
+         * @param firstRow index of the first row in the chunk
+         * @param values   the values, reused for the next chunk
+         * @param count    number of values filled in, the last chunk may be partial
+         * @return true to continue, false to stop reading
+         */
+        boolean visitChunk(long firstRow, double[] values, int count);
+    }
+
+    /**
+     * One line of the file, split into fields. Fields are parsed from the mapped bytes on access
+     */
+    public static final class Row {
+
+        private final char delimiter;
+        CharSequence window;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int columns;
+
+        Row(char delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        /**
+         * @return false if the line is blank
+         */
+        boolean split(int start, int end) {
+            if (JUtil.trimStart(window, start, end) == end) {
+                return false;
+            }
+            columns = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i < end && window.charAt(i) != delimiter) {
+                    continue;
+                }
+                if (columns == starts.length) {
+                    starts = Arrays.copyOf(starts, columns * 2);
+                    ends = Arrays.copyOf(ends, columns * 2);
+                }
+                int from = JUtil.trimStart(window, fieldStart, i);
+                starts[columns] = from;
+                ends[columns] = JUtil.trimEnd(window, from, i);
+                columns++;
+                fieldStart = i + 1;
+            }
+            return true;
+        }
+
+        /**
+         * @return number of fields in this row
+         */
+        public int getColumnCount() {
+            return columns;
+        }
+
+        /**
+         * @param column index of the column, 0 based
+         * @return true if the row has no such column, or the field is blank
+         */
+        public boolean isEmpty(int column) {
+            return column < 0 || column >= columns || starts[column] == ends[column];
+        }
+
+        /**
+         * @param column       index of the column, 0 based
+         * @param defaultValue value in case the field cannot be parsed or does not exist
+         * @return the field as int
+         */
+        public int getInt(int column, int defaultValue) {
+            return isEmpty(column) ? defaultValue : NumberUtil.parseInt(window, starts[column], ends[column], defaultValue);
+        }
+
+        /**
+         * @param column       index of the column, 0 based
+         * @param defaultValue value in case the field cannot be parsed or does not exist
+         * @return the field as long
+         */
+        public long getLong(int column, long defaultValue) {
+            return isEmpty(column) ? defaultValue : NumberUtil.parseLong(window, starts[column], ends[column], defaultValue);
+        }
+
+        /**
+         * @param column       index of the column, 0 based
+         * @param defaultValue value in case the field cannot be parsed or does not exist
+         * @return the field as double
+         */
+        public double getDouble(int column, double defaultValue) {
+            return isEmpty(column) ? defaultValue : NumberUtil.parseDouble(window, starts[column], ends[column], defaultValue);
+        }
+
+        /**
+         * Get the field as text, this creates a String, prefer the numeric getters
+         *
+         * @param column index of the column, 0 based
+         * @return the field trimmed, null if the row has no such column
+         */
+        public String getString(int column) {
+            return column < 0 || column >= columns ? null : window.subSequence(starts[column], ends[column]).toString();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("Row[");
+            for (int c = 0; c < columns; c++) {
+                sb.append(c == 0 ? "" : ", ").append(getString(c));
+            }
+            return sb.append(']').toString();
+        }
+    }
+}
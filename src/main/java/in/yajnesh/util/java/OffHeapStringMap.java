@@ -0,0 +1,779 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * String to String map, and String set, held entirely off the Java heap, for tens of millions of entries
+ * without any garbage collection cost.
+ * <p>
+ * Keys and values are stored as UTF-8 bytes in direct {@link ByteBuffer} arenas, and found through
+ * an open addressing hash index which is off heap as well. Lookups take a {@link CharSequence} or a range of UTF-8 bytes
+ * and never create a String, only {@link #get(CharSequence)} creates the one it returns.
+ * </p>
+ * <p>
+ * The memory is released by {@link #close()}, not by the garbage collector. A table can be written to a file
+ * with {@link #save(File)} and memory mapped back with {@link #open(File)}, so a restart does not rebuild it.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * {@code
+ * try (OffHeapStringMap seen = new OffHeapStringMap(50000000)) {
+ *     for (CharSequence id : ids) {
+ *         if (seen.add(id)) {
+ *             //first time
+ *         }
+ *     }
+ * }}
+ * </pre>
+ * The table only grows, keys cannot be removed. Not thread safe, many readers may share it while nothing writes.
+ *
+ * @author Yajnesh T
+ * @see CompactStringMap
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class OffHeapStringMap implements Closeable {
+
+    /**
+     * Arena size, unless configured otherwise
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+
+    private static final int MAGIC = 0x4F48534D;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 24;
+
+    /**
+     * an address is (chunk << OFFSET_BITS | offset) + 1, so that 0 marks an empty slot
+     */
+    private static final int OFFSET_BITS = 30;
+    private static final int MAX_CHUNK_SIZE = 1 << OFFSET_BITS;
+
+    /**
+     * a slot is the long address of the record and the int hash of its key
+     */
+    private static final int SLOT_BYTES = 12;
+    private static final int SEGMENT_BITS = 20;
+    private static final int SEGMENT_SLOTS = 1 << SEGMENT_BITS;
+    private static final int MIN_SLOTS = 16;
+    private static final int MAX_SLOTS = 1 << 30;
+
+    /**
+     * a record is the key length, value length and value capacity, then the key and value bytes
+     */
+    private static final int RECORD_HEADER_BYTES = 12;
+    private static final int NO_VALUE = -1;
+
+    private final int chunkSize;
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int[] chunkLengths = new int[4];
+    private int chunkCount;
+
+    private ByteBuffer[] segments;
+    private int slots;
+    private int shift;
+    private long size;
+    private long wastedBytes;
+    private boolean closed;
+
+    public OffHeapStringMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of keys to hold without growing the index
+     */
+    public OffHeapStringMap(int expectedSize) {
+        this(expectedSize, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param expectedSize number of keys to hold without growing the index
+     * @param chunkSize    bytes allocated at a time for keys and values, at most 1 GB
+     */
+    public OffHeapStringMap(int expectedSize, int chunkSize) {
+        this.chunkSize = Math.min(Math.max(chunkSize, 1024), MAX_CHUNK_SIZE);
+        long needed = (long) Math.max(expectedSize, 0) * 4 / 3 + 1;
+        int capacity = MIN_SLOTS;
+        while (capacity < needed && capacity < MAX_SLOTS) {
+            capacity <<= 1;
+        }
+        allocateIndex(capacity);
+    }
+
+    /**
+     * @return number of keys
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no keys
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return bytes of off heap memory held, index and arenas
+     */
+    public long getMemoryUsed() {
+        long bytes = (long) slots * SLOT_BYTES;
+        for (int c = 0; c < chunkCount; c++) {
+            bytes += chunks[c].capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return arena bytes left behind by values replaced with longer ones
+     */
+    public long getWastedBytes() {
+        return wastedBytes;
+    }
+
+    /**
+     * Add a key, as to a set
+     *
+     * @param key the key, not null
+     * @return true if added, false if already present
+     */
+    public boolean add(CharSequence key) {
+        return insert(key, null, 0, 0, null, false);
+    }
+
+    /**
+     * Add a key given as UTF-8 bytes, as to a set
+     *
+     * @param utf8   bytes of the key
+     * @param offset start of the key
+     * @param length length of the key
+     * @return true if added, false if already present
+     */
+    public boolean add(byte[] utf8, int offset, int length) {
+        return insert(null, utf8, offset, length, null, false);
+    }
+
+    /**
+     * Map the key to the value, replacing any value it had
+     *
+     * @param key   the key, not null
+     * @param value the value, null for none
+     * @return true if the key was added, false if already present
+     */
+    public boolean put(CharSequence key, CharSequence value) {
+        return insert(key, null, 0, 0, value, true);
+    }
+
+    /**
+     * @param key the key
+     * @return true if the key is present
+     */
+    public boolean contains(CharSequence key) {
+        return key != null && find(key, null, 0, 0, hash(key)) >= 0;
+    }
+
+    /**
+     * @param utf8   bytes of the key
+     * @param offset start of the key
+     * @param length length of the key
+     * @return true if the key is present
+     */
+    public boolean contains(byte[] utf8, int offset, int length) {
+        return utf8 != null && find(null, utf8, offset, length, hash(utf8, offset, length)) >= 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the value of the key, null if absent or without value
+     */
+    public String get(CharSequence key) {
+        return key == null ? null : valueOf(find(key, null, 0, 0, hash(key)));
+    }
+
+    /**
+     * @param utf8   bytes of the key
+     * @param offset start of the key
+     * @param length length of the key
+     * @return the value of the key, null if absent or without value
+     */
+    public String get(byte[] utf8, int offset, int length) {
+        return utf8 == null ? null : valueOf(find(null, utf8, offset, length, hash(utf8, offset, length)));
+    }
+
+    /**
+     * Append the value of the key, without creating a String
+     *
+     * @param key the key
+     * @param sb  the builder to append to
+     * @return false if the key is absent or without value
+     */
+    public boolean appendValue(CharSequence key, StringBuilder sb) {
+        int slot = key == null ? -1 : find(key, null, 0, 0, hash(key));
+        if (slot < 0) {
+            return false;
+        }
+        long address = addressAt(slot);
+        ByteBuffer chunk = chunkOf(address);
+        int offset = offsetOf(address);
+        int valueLength = chunk.getInt(offset + 4);
+        if (valueLength == NO_VALUE) {
+            return false;
+        }
+        decodeUtf8(chunk, offset + RECORD_HEADER_BYTES + chunk.getInt(offset), valueLength, sb);
+        return true;
+    }
+
+    /**
+     * Free all the memory. The map cannot be used afterwards, and must not be in use by another thread
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int c = 0; c < chunkCount; c++) {
+            DirectBuffers.free(chunks[c]);
+        }
+        for (ByteBuffer segment : segments) {
+            DirectBuffers.free(segment);
+        }
+        chunks = new ByteBuffer[0];
+        chunkCount = 0;
+        segments = new ByteBuffer[0];
+        slots = 0;
+        size = 0;
+    }
+
+    /**
+     * Write the map to a file, to be reopened by {@link #open(File)}.
+     * The file is written aside and moved in place once complete, so it can be the file this map was opened from
+     *
+     * @param file the file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        ensureOpen();
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES + 4 * chunkCount);
+            header.putInt(MAGIC).putInt(VERSION).putLong(size).putInt(slots).putInt(chunkCount);
+            for (int c = 0; c < chunkCount; c++) {
+                header.putInt(chunkLengths[c]);
+            }
+            header.flip();
+            writeFully(channel, header);
+            for (ByteBuffer segment : segments) {
+                ByteBuffer view = segment.duplicate();
+                view.clear();
+                writeFully(channel, view);
+            }
+            for (int c = 0; c < chunkCount; c++) {
+                ByteBuffer view = chunks[c].duplicate();
+                view.position(0).limit(chunkLengths[c]);
+                writeFully(channel, view);
+            }
+            channel.force(false);
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Memory map a file written by {@link #save(File)}. Nothing is read up front, pages are loaded as they are used.
+     * <p>
+     * The mapping is private, the map stays fully usable and changes to it never reach the file, until saved again.
+     * The file needs to be writable for that.
+     * </p>
+     *
+     * @param file the file
+     * @return the map, to be closed once done
+     * @throws IOException if the file cannot be read or was not written by {@link #save(File)}
+     */
+    public static OffHeapStringMap open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an OffHeapStringMap file: " + file);
+            }
+            long size = header.getLong();
+            int slots = header.getInt();
+            int chunkCount = header.getInt();
+            if (Integer.bitCount(slots) != 1 || slots < MIN_SLOTS || slots > MAX_SLOTS || chunkCount < 0) {
+                throw new IOException("Corrupt OffHeapStringMap file: " + file);
+            }
+            ByteBuffer lengths = ByteBuffer.allocate(4 * chunkCount);
+            readFully(channel, lengths, FILE_HEADER_BYTES);
+            lengths.flip();
+
+            long position = FILE_HEADER_BYTES + 4L * chunkCount;
+            long end = position + (long) slots * SLOT_BYTES;
+            for (int c = 0; c < chunkCount; c++) {
+                end += lengths.getInt(4 * c);
+            }
+            if (end > channel.size()) {
+                throw new IOException("Truncated OffHeapStringMap file: " + file);
+            }
+
+            OffHeapStringMap map = new OffHeapStringMap(0, DEFAULT_CHUNK_SIZE);
+            DirectBuffers.free(map.segments[0]);
+            map.size = size;
+            map.slots = slots;
+            map.shift = Integer.numberOfLeadingZeros(slots) + 1;
+            map.segments = new ByteBuffer[Math.max(slots >>> SEGMENT_BITS, 1)];
+            for (int s = 0; s < map.segments.length; s++) {
+                long bytes = (long) Math.min(slots, SEGMENT_SLOTS) * SLOT_BYTES;
+                map.segments[s] = channel.map(FileChannel.MapMode.PRIVATE, position, bytes);
+                position += bytes;
+            }
+            map.chunks = new ByteBuffer[Math.max(chunkCount, 4)];
+            map.chunkLengths = new int[map.chunks.length];
+            for (int c = 0; c < chunkCount; c++) {
+                int length = lengths.getInt();
+                map.chunks[c] = channel.map(FileChannel.MapMode.PRIVATE, position, length);
+                map.chunkLengths[c] = length;
+                position += length;
+            }
+            map.chunkCount = chunkCount;
+            return map;
+        }
+    }
+
+    private boolean insert(CharSequence cs, byte[] bytes, int offset, int length, CharSequence value, boolean setValue) {
+        ensureOpen();
+        if (cs == null && bytes == null) {
+            throw new NullPointerException("key");
+        }
+        int hash = cs != null ? hash(cs) : hash(bytes, offset, length);
+        int slot = find(cs, bytes, offset, length, hash);
+        if (slot >= 0) {
+            if (setValue) {
+                replaceValue(slot, value);
+            }
+            return false;
+        }
+        if (size + 1 > slots - (slots >> 2)) {
+            growIndex();
+            slot = find(cs, bytes, offset, length, hash);
+        }
+        int keyLength = cs != null ? utf8Length(cs) : length;
+        int valueLength = value == null ? NO_VALUE : utf8Length(value);
+        long address = allocateRecord(keyLength, Math.max(valueLength, 0));
+        ByteBuffer chunk = chunkOf(address);
+        int at = offsetOf(address);
+        chunk.putInt(at, keyLength).putInt(at + 4, valueLength).putInt(at + 8, Math.max(valueLength, 0));
+        at += RECORD_HEADER_BYTES;
+        if (cs != null) {
+            at = writeUtf8(chunk, at, cs);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chunk.put(at++, bytes[offset + i]);
+            }
+        }
+        if (value != null) {
+            writeUtf8(chunk, at, value);
+        }
+        setSlot(-slot - 1, address, hash);
+        size++;
+        return true;
+    }
+
+    private void replaceValue(int slot, CharSequence value) {
+        long address = addressAt(slot);
+        ByteBuffer chunk = chunkOf(address);
+        int at = offsetOf(address);
+        int keyLength = chunk.getInt(at);
+        int capacity = chunk.getInt(at + 8);
+        int valueLength = value == null ? NO_VALUE : utf8Length(value);
+        if (valueLength <= capacity) {
+            chunk.putInt(at + 4, valueLength);
+            if (value != null) {
+                writeUtf8(chunk, at + RECORD_HEADER_BYTES + keyLength, value);
+            }
+            return;
+        }
+        //no room in place, the record moves and the old one is left behind
+        long moved = allocateRecord(keyLength, valueLength);
+        ByteBuffer target = chunkOf(moved);
+        int to = offsetOf(moved);
+        target.putInt(to, keyLength).putInt(to + 4, valueLength).putInt(to + 8, valueLength);
+        for (int i = 0; i < keyLength; i++) {
+            target.put(to + RECORD_HEADER_BYTES + i, chunk.get(at + RECORD_HEADER_BYTES + i));
+        }
+        writeUtf8(target, to + RECORD_HEADER_BYTES + keyLength, value);
+        setSlot(slot, moved, hashAt(slot));
+        wastedBytes += RECORD_HEADER_BYTES + keyLength + capacity;
+    }
+
+    /**
+     * @return slot of the key, or <code>-(slot + 1)</code> of the empty slot where it would go
+     */
+    private int find(CharSequence cs, byte[] bytes, int offset, int length, int hash) {
+        ensureOpen();
+        int mask = slots - 1;
+        for (int slot = (hash * 0x9E3779B9) >>> shift; ; slot = (slot + 1) & mask) {
+            ByteBuffer segment = segments[slot >>> SEGMENT_BITS];
+            int at = (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES;
+            long address = segment.getLong(at);
+            if (address == 0) {
+                return -slot - 1;
+            }
+            if (segment.getInt(at + 8) == hash && keyEquals(address, cs, bytes, offset, length)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean keyEquals(long address, CharSequence cs, byte[] bytes, int offset, int length) {
+        ByteBuffer chunk = chunkOf(address);
+        int at = offsetOf(address);
+        int keyLength = chunk.getInt(at);
+        at += RECORD_HEADER_BYTES;
+        if (cs == null) {
+            if (keyLength != length) {
+                return false;
+            }
+            int i = 0;
+            //a word at a time, then the tail
+            for (; i + 8 <= length; i += 8) {
+                long word = 0;
+                for (int k = 0; k < 8; k++) {
+                    word = word << 8 | bytes[offset + i + k] & 0xFF;
+                }
+                if (chunk.getLong(at + i) != word) {
+                    return false;
+                }
+            }
+            for (; i < length; i++) {
+                if (chunk.get(at + i) != bytes[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        int end = at + keyLength;
+        int n = cs.length();
+        int i = 0;
+        //ascii keys a word at a time
+        while (i + 8 <= n && at + 8 <= end) {
+            long word = 0;
+            int k = 0;
+            for (char c; k < 8 && (c = cs.charAt(i + k)) < 0x80; k++) {
+                word = word << 8 | c;
+            }
+            if (k < 8) {
+                break;
+            }
+            if (chunk.getLong(at) != word) {
+                return false;
+            }
+            i += 8;
+            at += 8;
+        }
+        for (; i < n; i++) {
+            char c = cs.charAt(i);
+            if (c < 0x80) {
+                if (at == end || chunk.get(at++) != c) {
+                    return false;
+                }
+                continue;
+            }
+            int cp = codePointAt(cs, i);
+            if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                i++;
+            }
+            int count = utf8Length(cp);
+            if (at + count > end) {
+                return false;
+            }
+            for (int k = 0; k < count; k++) {
+                if (chunk.get(at++) != (byte) utf8Byte(cp, count, k)) {
+                    return false;
+                }
+            }
+        }
+        return at == end;
+    }
+
+    private String valueOf(int slot) {
+        if (slot < 0) {
+            return null;
+        }
+        long address = addressAt(slot);
+        ByteBuffer chunk = chunkOf(address);
+        int at = offsetOf(address);
+        int valueLength = chunk.getInt(at + 4);
+        if (valueLength == NO_VALUE) {
+            return null;
+        }
+        at += RECORD_HEADER_BYTES + chunk.getInt(at);
+        byte[] value = new byte[valueLength];
+        for (int i = 0; i < valueLength; i++) {
+            value[i] = chunk.get(at + i);
+        }
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private long allocateRecord(int keyLength, int valueCapacity) {
+        long recordLength = (long) RECORD_HEADER_BYTES + keyLength + valueCapacity;
+        if (recordLength > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Key and value of " + recordLength + " bytes, above the limit of " + MAX_CHUNK_SIZE);
+        }
+        int c = chunkCount - 1;
+        if (c < 0 || chunkLengths[c] + recordLength > chunks[c].capacity()) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+                chunkLengths = Arrays.copyOf(chunkLengths, chunkCount * 2);
+            }
+            c = chunkCount++;
+            chunks[c] = ByteBuffer.allocateDirect((int) Math.max(chunkSize, recordLength));
+            chunkLengths[c] = 0;
+        }
+        long address = ((long) c << OFFSET_BITS | chunkLengths[c]) + 1;
+        chunkLengths[c] += (int) recordLength;
+        return address;
+    }
+
+    private ByteBuffer chunkOf(long address) {
+        return chunks[(int) ((address - 1) >>> OFFSET_BITS)];
+    }
+
+    private static int offsetOf(long address) {
+        return (int) ((address - 1) & (MAX_CHUNK_SIZE - 1));
+    }
+
+    private long addressAt(int slot) {
+        return segments[slot >>> SEGMENT_BITS].getLong((slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES);
+    }
+
+    private int hashAt(int slot) {
+        return segments[slot >>> SEGMENT_BITS].getInt((slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES + 8);
+    }
+
+    private void setSlot(int slot, long address, int hash) {
+        ByteBuffer segment = segments[slot >>> SEGMENT_BITS];
+        int at = (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES;
+        segment.putLong(at, address).putInt(at + 8, hash);
+    }
+
+    private void allocateIndex(int capacity) {
+        slots = capacity;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        segments = new ByteBuffer[Math.max(capacity >>> SEGMENT_BITS, 1)];
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = ByteBuffer.allocateDirect(Math.min(capacity, SEGMENT_SLOTS) * SLOT_BYTES);
+        }
+    }
+
+    /**
+     * Double the index, the records stay where they are
+     */
+    private void growIndex() {
+        if (slots == MAX_SLOTS) {
+            throw new IllegalStateException("OffHeapStringMap is full, " + size + " keys");
+        }
+        ByteBuffer[] oldSegments = segments;
+        int oldSlots = slots;
+        allocateIndex(slots << 1);
+        int mask = slots - 1;
+        for (int s = 0; s < oldSlots; s++) {
+            ByteBuffer segment = oldSegments[s >>> SEGMENT_BITS];
+            int at = (s & (SEGMENT_SLOTS - 1)) * SLOT_BYTES;
+            long address = segment.getLong(at);
+            if (address == 0) {
+                continue;
+            }
+            int hash = segment.getInt(at + 8);
+            int slot = (hash * 0x9E3779B9) >>> shift;
+            while (addressAt(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            setSlot(slot, address, hash);
+        }
+        for (ByteBuffer segment : oldSegments) {
+            DirectBuffers.free(segment);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("OffHeapStringMap is closed");
+        }
+    }
+
+    /**
+     * FNV-1a of the UTF-8 bytes, the same whether the key comes as chars or bytes
+     */
+    private static int hash(CharSequence cs) {
+        int hash = 0x811C9DC5;
+        for (int i = 0, n = cs.length(); i < n; i++) {
+            char c = cs.charAt(i);
+            if (c < 0x80) {
+                hash = (hash ^ c) * 0x01000193;
+                continue;
+            }
+            int cp = codePointAt(cs, i);
+            if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                i++;
+            }
+            int count = utf8Length(cp);
+            for (int k = 0; k < count; k++) {
+                hash = (hash ^ utf8Byte(cp, count, k)) * 0x01000193;
+            }
+        }
+        return hash;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0x811C9DC5;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    /**
+     * @return the code point at i, '?' for a lone surrogate as String.getBytes does
+     */
+    private static int codePointAt(CharSequence cs, int i) {
+        char c = cs.charAt(i);
+        if (!Character.isSurrogate(c)) {
+            return c;
+        }
+        char low;
+        if (Character.isHighSurrogate(c) && i + 1 < cs.length() && Character.isLowSurrogate(low = cs.charAt(i + 1))) {
+            return Character.toCodePoint(c, low);
+        }
+        return '?';
+    }
+
+    private static int utf8Length(int cp) {
+        return cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+    }
+
+    private static int utf8Length(CharSequence cs) {
+        int length = 0;
+        for (int i = 0, n = cs.length(); i < n; i++) {
+            int cp = codePointAt(cs, i);
+            if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                i++;
+            }
+            length += utf8Length(cp);
+        }
+        return length;
+    }
+
+    /**
+     * @return byte k of the count byte UTF-8 encoding of cp
+     */
+    private static int utf8Byte(int cp, int count, int k) {
+        if (count == 1) {
+            return cp;
+        }
+        if (k == 0) {
+            return (count == 2 ? 0xC0 : count == 3 ? 0xE0 : 0xF0) | cp >> (6 * (count - 1));
+        }
+        return 0x80 | (cp >> (6 * (count - 1 - k))) & 0x3F;
+    }
+
+    /**
+     * @return offset after the bytes
+     */
+    private static int writeUtf8(ByteBuffer buffer, int at, CharSequence cs) {
+        for (int i = 0, n = cs.length(); i < n; i++) {
+            char c = cs.charAt(i);
+            if (c < 0x80) {
+                buffer.put(at++, (byte) c);
+                continue;
+            }
+            int cp = codePointAt(cs, i);
+            if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                i++;
+            }
+            int count = utf8Length(cp);
+            for (int k = 0; k < count; k++) {
+                buffer.put(at++, (byte) utf8Byte(cp, count, k));
+            }
+        }
+        return at;
+    }
+
+    /**
+     * decode, a malformed byte becomes U+FFFD
+     */
+    private static void decodeUtf8(ByteBuffer buffer, int at, int length, StringBuilder sb) {
+        int end = at + length;
+        while (at < end) {
+            int b = buffer.get(at) & 0xFF;
+            int count = b < 0x80 ? 1 : b >= 0xC2 && b < 0xE0 ? 2 : b >= 0xE0 && b < 0xF0 ? 3 : b >= 0xF0 && b < 0xF5 ? 4 : 0;
+            int cp = count == 1 ? b : b & (0x7F >> count);
+            boolean valid = count > 0 && at + count <= end;
+            for (int k = 1; valid && k < count; k++) {
+                int next = buffer.get(at + k) & 0xFF;
+                valid = (next & 0xC0) == 0x80;
+                cp = cp << 6 | next & 0x3F;
+            }
+            valid = valid && !(count == 3 && (cp < 0x800 || Character.isSurrogate((char) cp)))
+                    && !(count == 4 && (cp < 0x10000 || cp > Character.MAX_CODE_POINT));
+            if (valid) {
+                sb.appendCodePoint(cp);
+                at += count;
+            } else {
+                sb.append('\uFFFD');
+                at++;
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds and parses {@code application/x-www-form-urlencoded} bodies and query strings,
+ * Eg. <code>name=Yajnesh+T&amp;lang=java</code>
+ * <p>
+ * Encoding writes every key and value in a single pass into one presized builder, instead of
+ * encoding each of them to a String and concatenating.
+ * </p>
+ * <p>
+ * Parsing walks the text without copying it and hands out {@link Param} slices, keys and values are decoded
+ * only when read, so parameters which are never read are never decoded:
+ * </p>
+ * <pre>
+ * {@code
+ * QueryCodec.UTF_8.parse(query, new QueryCodec.ParamVisitor() {
+ *     public boolean visitParam(QueryCodec.Param param) {
+ *         if (param.keyEquals("id")) {
+ *             id = param.getValue();
+ *             return false;
+ *         }
+ *         return true;
+ *     }
+ * });}
+ * </pre>
+ *
+ * @author Yajnesh T
+ * @see UrlCodec
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class QueryCodec {
+
+    /**
+     * The codec for UTF-8, as recommended by the W3C
+     */
+    public static final QueryCodec UTF_8 = new QueryCodec(UrlCodec.UTF_8);
+
+    private final UrlCodec codec;
+
+    /**
+     * @param codec encodes and decodes the keys and values
+     */
+    public QueryCodec(UrlCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Encode the parameters, in the iteration order of the map
+     * <p>
+     * Null keys are skipped, a null value writes the key alone
+     * </p>
+     *
+     * @param params the parameters
+     * @return the query string, empty if params is null or empty
+     */
+    public String encode(Map<String, String> params) {
+        if (params == null || params.isEmpty()) {
+            return JUtil.EMPTY_STRING;
+        }
+        int length = 0;
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            length += rawLength(entry.getKey(), entry.getValue());
+        }
+        StringBuilder sb = ScratchBuffers.builder(presize(length));
+        try {
+            return encode(params, sb).toString();
+        } finally {
+            ScratchBuffers.release(sb);
+        }
+    }
+
+    /**
+     * Encode the parameters into a builder, in the iteration order of the map
+     *
+     * @param params the parameters, null appends nothing
+     * @param sb     the builder to append to
+     * @return the same builder
+     * @see #encode(Map)
+     */
+    public StringBuilder encode(Map<String, String> params, StringBuilder sb) {
+        if (params != null) {
+            boolean first = true;
+            for (Map.Entry<String, String> entry : params.entrySet()) {
+                first = appendParam(sb, entry.getKey(), entry.getValue(), first);
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * Encode the parameters given as parallel arrays
+     * <p>
+     * Usage: <code>encode(new String[]{"q", "page"}, new String[]{query, "2"})</code>
+     * </p>
+     *
+     * @param keys   the keys, null keys are skipped
+     * @param values the values, a missing or null value writes the key alone
+     * @return the query string, empty if keys is null or empty
+     */
+    public String encode(String[] keys, String[] values) {
+        if (keys == null || keys.length == 0) {
+            return JUtil.EMPTY_STRING;
+        }
+        int length = 0;
+        for (int i = 0; i < keys.length; i++) {
+            length += rawLength(keys[i], JUtil.get(values, i));
+        }
+        StringBuilder sb = ScratchBuffers.builder(presize(length));
+        try {
+            return encode(keys, values, sb).toString();
+        } finally {
+            ScratchBuffers.release(sb);
+        }
+    }
+
+    /**
+     * Encode the parameters given as parallel arrays into a builder
+     *
+     * @param keys   the keys, null keys are skipped
+     * @param values the values, a missing or null value writes the key alone
+     * @param sb     the builder to append to
+     * @return the same builder
+     * @see #encode(String[], String[])
+     */
+    public StringBuilder encode(String[] keys, String[] values, StringBuilder sb) {
+        if (keys != null) {
+            boolean first = true;
+            for (int i = 0; i < keys.length; i++) {
+                first = appendParam(sb, keys[i], JUtil.get(values, i), first);
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * @return true while nothing has been written
+     */
+    private boolean appendParam(StringBuilder sb, String key, String value, boolean first) {
+        if (key == null) {
+            return first;
+        }
+        if (!first) {
+            sb.append('&');
+        }
+        codec.encode(key, sb);
+        if (value != null) {
+            codec.encode(value, sb.append('='));
+        }
+        return false;
+    }
+
+    private static int rawLength(String key, String value) {
+        return key == null ? 0 : key.length() + (value == null ? 0 : value.length() + 1) + 1;
+    }
+
+    /**
+     * room for some escaping on top of the raw text
+     */
+    private static int presize(int rawLength) {
+        return rawLength + (rawLength >> 3) + 16;
+    }
+
+    /**
+     * Parse a query string into a map, decoding every key and value
+     * <p>
+     * A leading <code>?</code> is ignored. When a key repeats, the last value wins,
+     * use {@link #parse(CharSequence, ParamVisitor)} to see them all
+     * </p>
+     *
+     * @param query the query string Eg. <code>a=1&amp;b=2</code>
+     * @return the parameters in order, empty if query is null or empty
+     */
+    public Map<String, String> parse(CharSequence query) {
+        final Map<String, String> params = new LinkedHashMap<>();
+        parse(query, new ParamVisitor() {
+            @Override
+            public boolean visitParam(Param param) {
+                params.put(param.getKey(), param.getValue());
+                return true;
+            }
+        });
+        return params;
+    }
+
+    /**
+     * Walk the parameters of a query string, without decoding or copying anything up front
+     * <p>
+     * A leading <code>?</code> is ignored, as are empty parameters (<code>a=1&amp;&amp;b=2</code>)
+     * </p>
+     *
+     * @param query   the query string Eg. <code>a=1&amp;b=2</code>, null visits nothing
+     * @param visitor called for every parameter, in order
+     * @return number of parameters visited
+     */
+    public int parse(CharSequence query, ParamVisitor visitor) {
+        if (query == null) {
+            return 0;
+        }
+        int end = query.length();
+        int i = end > 0 && query.charAt(0) == '?' ? 1 : 0;
+        Param param = new Param(codec, query);
+        int count = 0;
+        while (i < end) {
+            int paramEnd = i;
+            int equals = -1;
+            for (char c; paramEnd < end && (c = query.charAt(paramEnd)) != '&'; paramEnd++) {
+                if (c == '=' && equals < 0) {
+                    equals = paramEnd;
+                }
+            }
+            if (paramEnd > i) {
+                param.set(i, equals < 0 ? paramEnd : equals, equals < 0 ? -1 : equals + 1, paramEnd);
+                count++;
+                if (!visitor.visitParam(param)) {
+                    break;
+                }
+            }
+            i = paramEnd + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Get the decoded value of a parameter, without decoding any other
+     *
+     * @param query the query string Eg. <code>a=1&amp;b=2</code>
+     * @param key   the decoded key
+     * @return value of the first parameter with the key, empty if it has no value. null if not found
+     */
+    public String getValue(CharSequence query, final String key) {
+        final String[] value = {null};
+        parse(query, new ParamVisitor() {
+            @Override
+            public boolean visitParam(Param param) {
+                if (param.keyEquals(key)) {
+                    value[0] = param.getValue();
+                    return false;
+                }
+                return true;
+            }
+        });
+        return value[0];
+    }
+
+    /**
+     * Called for every parameter of a query string
+     */
+    public interface ParamVisitor {
+
+        /**
+         * @param param the parameter, reused and only valid during the call
+         * @return true to continue, false to stop parsing
+         */
+        boolean visitParam(Param param);
+    }
+
+    /**
+     * One parameter of a query string, a slice of the text decoded on demand
+     */
+    public static final class Param {
+
+        private final UrlCodec codec;
+        private final CharSequence query;
+        private int keyStart;
+        private int keyEnd;
+        private int valueStart;
+        private int valueEnd;
+
+        Param(UrlCodec codec, CharSequence query) {
+            this.codec = codec;
+            this.query = query;
+        }
+
+        void set(int keyStart, int keyEnd, int valueStart, int valueEnd) {
+            this.keyStart = keyStart;
+            this.keyEnd = keyEnd;
+            this.valueStart = valueStart;
+            this.valueEnd = valueEnd;
+        }
+
+        /**
+         * @return the decoded key
+         */
+        public String getKey() {
+            return decode(keyStart, keyEnd);
+        }
+
+        /**
+         * @return the decoded value, empty if the parameter has no value
+         */
+        public String getValue() {
+            return valueStart < 0 ? JUtil.EMPTY_STRING : decode(valueStart, valueEnd);
+        }
+
+        /**
+         * @return true if the parameter has a value, even an empty one (<code>a=</code>), false for <code>a</code> alone
+         */
+        public boolean hasValue() {
+            return valueStart >= 0;
+        }
+
+        /**
+         * Compare the key, without decoding it unless it is escaped
+         *
+         * @param key the decoded key
+         * @return true if the decoded key equals key
+         */
+        public boolean keyEquals(String key) {
+            if (key == null) {
+                return false;
+            }
+            if (isEscaped(keyStart, keyEnd)) {
+                return key.equals(getKey());
+            }
+            int length = keyEnd - keyStart;
+            if (key.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (query.charAt(keyStart + i) != key.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Append the decoded value, without creating a String
+         *
+         * @param sb the builder to append to
+         * @return the same builder
+         */
+        public StringBuilder appendValue(StringBuilder sb) {
+            return valueStart < 0 ? sb : codec.decode(query, valueStart, valueEnd, sb);
+        }
+
+        /**
+         * @return the key as it is in the query, still encoded
+         */
+        public CharSequence getRawKey() {
+            return query.subSequence(keyStart, keyEnd);
+        }
+
+        /**
+         * @return the value as it is in the query, still encoded. Empty if the parameter has no value
+         */
+        public CharSequence getRawValue() {
+            return valueStart < 0 ? JUtil.EMPTY_STRING : query.subSequence(valueStart, valueEnd);
+        }
+
+        private String decode(int start, int end) {
+            if (!isEscaped(start, end)) {
+                return query.subSequence(start, end).toString();
+            }
+            StringBuilder sb = ScratchBuffers.builder(end - start);
+            try {
+                return codec.decode(query, start, end, sb).toString();
+            } finally {
+                ScratchBuffers.release(sb);
+            }
+        }
+
+        private boolean isEscaped(int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = query.charAt(i);
+                if (c == '%' || c == '+') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return query.subSequence(keyStart, valueStart < 0 ? keyEnd : valueEnd).toString();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reusable scratch StringBuilders, char arrays and byte arrays, for the methods which build a String and throw the builder away.
+ * <p>
+ * A buffer is taken, used and given back before the method returns:
+ * <code>StringBuilder sb = ScratchBuffers.builder(64); try { ... return sb.toString(); } finally { ScratchBuffers.release(sb); }</code>.
+ * A taken buffer belongs to the caller alone until released, so a nested call, Eg. a toString that stringifies again,
+ * simply gets another one. Buffers grown above {@link #MAX_CHARS} or {@link #MAX_BYTES} are not kept,
+ * so that one huge call cannot pin its memory for the life of the thread.
+ * </p>
+ * <p>
+ * The mode is read once from the system property {@value #MODE_PROPERTY}:
+ * </p>
+ * <ul>
+ * <li><code>thread</code>, the default: one buffer of each kind per thread. Virtual threads use the shared pool instead,
+ * as there may be millions of them, each living too short to reuse anything</li>
+ * <li><code>shared</code>: a small lock free pool shared by all threads, best when threads are many and short lived</li>
+ * <li><code>off</code>: every call allocates, as before</li>
+ * </ul>
+ * Thread safe.
+ *
+ * @author Yajnesh T
+ */
+final class ScratchBuffers {
+
+    static final String MODE_PROPERTY = "in.yajnesh.util.java.scratchBuffers";
+
+    /**
+     * Builders and char arrays of larger capacity are dropped on release
+     */
+    static final int MAX_CHARS = 16 * 1024;
+
+    /**
+     * Byte arrays of larger length are dropped on release
+     */
+    static final int MAX_BYTES = 16 * 1024;
+
+    /**
+     * arrays are allocated at least this long, so that a released one fits most later requests
+     */
+    private static final int MIN_ARRAY_LENGTH = 64;
+
+    enum Mode {THREAD, SHARED, OFF}
+
+    static final Mode MODE = mode(System.getProperty(MODE_PROPERTY));
+
+    /**
+     * buffers per kind in the shared pool, a power of 2
+     */
+    private static final int SHARED_SIZE = Integer.highestOneBit(Math.min(Math.max(Runtime.getRuntime().availableProcessors() * 2, 4), 64));
+
+    private static final AtomicReferenceArray<StringBuilder> SHARED_BUILDERS = new AtomicReferenceArray<StringBuilder>(SHARED_SIZE);
+    private static final AtomicReferenceArray<char[]> SHARED_CHARS = new AtomicReferenceArray<char[]>(SHARED_SIZE);
+    private static final AtomicReferenceArray<byte[]> SHARED_BYTES = new AtomicReferenceArray<byte[]>(SHARED_SIZE);
+
+    /**
+     * Thread.isVirtual, null before Java 21
+     */
+    private static final Method IS_VIRTUAL = isVirtualMethod();
+
+    /**
+     * marks a thread which uses the shared pool
+     */
+    private static final Slot USE_SHARED = new Slot();
+
+    private static final ThreadLocal<Slot> LOCAL = new ThreadLocal<Slot>() {
+        @Override
+        protected Slot initialValue() {
+            return isVirtual(Thread.currentThread()) ? USE_SHARED : new Slot();
+        }
+    };
+
+    private ScratchBuffers() {
+    }
+
+    /**
+     * Take an empty builder
+     *
+     * @param capacity capacity wanted, the builder still grows as usual
+     * @return the builder, to be given back with {@link #release(StringBuilder)}
+     */
+    static StringBuilder builder(int capacity) {
+        StringBuilder sb = null;
+        if (capacity <= MAX_CHARS && MODE != Mode.OFF) {
+            Slot slot = slot();
+            if (slot != null) {
+                sb = slot.builder;
+                slot.builder = null;
+            } else {
+                sb = take(SHARED_BUILDERS);
+            }
+        }
+        if (sb == null) {
+            return new StringBuilder(capacity);
+        }
+        sb.ensureCapacity(capacity);
+        return sb;
+    }
+
+    /**
+     * Give back a builder, which must not be used afterwards
+     *
+     * @param sb the builder, null is ignored
+     */
+    static void release(StringBuilder sb) {
+        if (sb == null || sb.capacity() > MAX_CHARS || MODE == Mode.OFF) {
+            return;
+        }
+        sb.setLength(0);
+        Slot slot = slot();
+        if (slot == null) {
+            give(SHARED_BUILDERS, sb);
+        } else if (slot.builder == null) {
+            slot.builder = sb;
+        }
+    }
+
+    /**
+     * Take a char array, its content is undefined
+     *
+     * @param length length wanted at least
+     * @return the array, to be given back with {@link #release(char[])}
+     */
+    static char[] chars(int length) {
+        char[] chars = null;
+        if (length <= MAX_CHARS && MODE != Mode.OFF) {
+            Slot slot = slot();
+            if (slot != null) {
+                chars = slot.chars;
+                slot.chars = null;
+            } else {
+                chars = take(SHARED_CHARS);
+            }
+        }
+        return chars == null || chars.length < length ? new char[Math.max(length, MIN_ARRAY_LENGTH)] : chars;
+    }
+
+    /**
+     * Give back a char array, which must not be used afterwards
+     *
+     * @param chars the array, null is ignored
+     */
+    static void release(char[] chars) {
+        if (chars == null || chars.length > MAX_CHARS || MODE == Mode.OFF) {
+            return;
+        }
+        Slot slot = slot();
+        if (slot == null) {
+            give(SHARED_CHARS, chars);
+        } else if (slot.chars == null || slot.chars.length < chars.length) {
+            slot.chars = chars;
+        }
+    }
+
+    /**
+     * Take a byte array, its content is undefined
+     *
+     * @param length length wanted at least
+     * @return the array, to be given back with {@link #release(byte[])}
+     */
+    static byte[] bytes(int length) {
+        byte[] bytes = null;
+        if (length <= MAX_BYTES && MODE != Mode.OFF) {
+            Slot slot = slot();
+            if (slot != null) {
+                bytes = slot.bytes;
+                slot.bytes = null;
+            } else {
+                bytes = take(SHARED_BYTES);
+            }
+        }
+        return bytes == null || bytes.length < length ? new byte[Math.max(length, MIN_ARRAY_LENGTH)] : bytes;
+    }
+
+    /**
+     * Give back a byte array, which must not be used afterwards
+     *
+     * @param bytes the array, null is ignored
+     */
+    static void release(byte[] bytes) {
+        if (bytes == null || bytes.length > MAX_BYTES || MODE == Mode.OFF) {
+            return;
+        }
+        Slot slot = slot();
+        if (slot == null) {
+            give(SHARED_BYTES, bytes);
+        } else if (slot.bytes == null || slot.bytes.length < bytes.length) {
+            slot.bytes = bytes;
+        }
+    }
+
+    /**
+     * @return buffers of the current thread, null if the shared pool is to be used
+     */
+    private static Slot slot() {
+        if (MODE != Mode.THREAD) {
+            return null;
+        }
+        Slot slot = LOCAL.get();
+        return slot == USE_SHARED ? null : slot;
+    }
+
+    /**
+     * @return a buffer of the pool, null if it is empty
+     */
+    private static <T> T take(AtomicReferenceArray<T> pool) {
+        int mask = pool.length() - 1;
+        int start = (int) Thread.currentThread().getId();
+        for (int i = 0; i <= mask; i++) {
+            int k = (start + i) & mask;
+            if (pool.get(k) != null) {
+                T buffer = pool.getAndSet(k, null);
+                if (buffer != null) {
+                    return buffer;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put the buffer in a free place of the pool, if any. Otherwise it is left to the garbage collector
+     */
+    private static <T> void give(AtomicReferenceArray<T> pool, T buffer) {
+        int mask = pool.length() - 1;
+        int start = (int) Thread.currentThread().getId();
+        for (int i = 0; i <= mask; i++) {
+            int k = (start + i) & mask;
+            if (pool.get(k) == null && pool.compareAndSet(k, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    private static Mode mode(String property) {
+        if ("shared".equalsIgnoreCase(property)) {
+            return Mode.SHARED;
+        }
+        if ("off".equalsIgnoreCase(property)) {
+            return Mode.OFF;
+        }
+        return Mode.THREAD;
+    }
+
+    private static Method isVirtualMethod() {
+        try {
+            return Thread.class.getMethod("isVirtual");
+        } catch (Exception e) {
+            //before Java 21, no thread is virtual
+            return null;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * buffers of one thread, confined to it
+     */
+    private static final class Slot {
+        StringBuilder builder;
+        char[] chars;
+        byte[] bytes;
+    }
+}
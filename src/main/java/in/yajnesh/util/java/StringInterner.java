@@ -0,0 +1,225 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded cache which hands out one String instance per content, for values which repeat a lot
+ * such as country codes, statuses, header names or tenant ids.
+ * <p>
+ * Lookups are by content, straight from a {@link CharSequence} or a range of it, so a hit allocates nothing
+ * and a miss allocates only the String kept. Unlike {@link String#intern()} the cache is bounded and never fills up:
+ * entries live in pairs of slots chosen by hash, and a miss evicts the older entry of its pair.
+ * </p>
+ * <p>
+ * Lock free and thread safe. Concurrent misses may evict each other's entry, which only costs a later miss,
+ * a returned String always has the content asked for.
+ * </p>
+ * <p>
+ * Usage: <code>JUtil.getString(charSequence, StringInterner.SHARED)</code>
+ * </p>
+ *
+ * @author Yajnesh T
+ * @see JUtil#getString(Object, StringInterner)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class StringInterner {
+
+    /**
+     * Number of Strings held, unless configured otherwise
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    /**
+     * Longer Strings are not cached, unless configured otherwise. Long values rarely repeat
+     */
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    /**
+     * Shared by the whole process, with the default capacity and maximum length
+     */
+    public static final StringInterner SHARED = new StringInterner(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * counters are striped by thread, and padded to a cache line each, so that threads do not contend on them
+     */
+    private static final int STRIPES = 16;
+    private static final int PADDING = 8;
+
+    private final String[] table;
+    private final int pairMask;
+    private final int maxLength;
+    private final AtomicLongArray hits = new AtomicLongArray(STRIPES * PADDING);
+    private final AtomicLongArray misses = new AtomicLongArray(STRIPES * PADDING);
+
+    /**
+     * @param capacity number of Strings held, rounded up to a power of 2
+     */
+    public StringInterner(int capacity) {
+        this(capacity, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity  number of Strings held, rounded up to a power of 2
+     * @param maxLength longer Strings are returned without being cached
+     */
+    public StringInterner(int capacity, int maxLength) {
+        int size = 2;
+        while (size < capacity && size < MAX_CAPACITY) {
+            size <<= 1;
+        }
+        this.table = new String[size];
+        this.pairMask = size - 2;
+        this.maxLength = Math.max(maxLength, 0);
+    }
+
+    /**
+     * @param cs the content
+     * @return the cached String with the content, null if cs is null
+     */
+    public String intern(CharSequence cs) {
+        return cs == null ? null : intern(cs, 0, cs.length());
+    }
+
+    /**
+     * @param cs    the content
+     * @param start start of the range, inclusive
+     * @param end   end of the range, exclusive
+     * @return the cached String with the content of the range, null if cs is null
+     * @throws IndexOutOfBoundsException if the range is not within cs
+     */
+    public String intern(CharSequence cs, int start, int end) {
+        if (cs == null) {
+            return null;
+        }
+        int length = end - start;
+        if (start < 0 || length < 0 || end > cs.length()) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + cs.length());
+        }
+        if (length == 0) {
+            return JUtil.EMPTY_STRING;
+        }
+        if (length > maxLength) {
+            return copy(cs, start, end);
+        }
+        //a whole String has its hash cached
+        int hash = cs instanceof String && length == cs.length() ? cs.hashCode() : hash(cs, start, end);
+        int slot = (hash ^ hash >>> 16) & pairMask;
+        String[] table = this.table;
+        String recent = table[slot];
+        if (matches(recent, hash, cs, start, length)) {
+            count(hits);
+            return recent;
+        }
+        String older = table[slot + 1];
+        if (matches(older, hash, cs, start, length)) {
+            count(hits);
+            return older;
+        }
+        String s = copy(cs, start, end);
+        table[slot + 1] = recent;
+        table[slot] = s;
+        count(misses);
+        return s;
+    }
+
+    /**
+     * @return number of lookups answered from the cache
+     */
+    public long getHits() {
+        return sum(hits);
+    }
+
+    /**
+     * @return number of lookups which had to create a String, not counting those above the maximum length
+     */
+    public long getMisses() {
+        return sum(misses);
+    }
+
+    /**
+     * @return number of Strings the cache holds at most
+     */
+    public int getCapacity() {
+        return table.length;
+    }
+
+    /**
+     * Forget all the Strings, the statistics are kept
+     */
+    public void clear() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StringInterner[capacity=" + table.length + ", hits=" + getHits() + ", misses=" + getMisses() + "]";
+    }
+
+    private static boolean matches(String candidate, int hash, CharSequence cs, int start, int length) {
+        if (candidate == null || candidate.length() != length || candidate.hashCode() != hash) {
+            return false;
+        }
+        if (cs instanceof String) {
+            return ((String) cs).regionMatches(start, candidate, 0, length);
+        }
+        for (int i = 0; i < length; i++) {
+            if (candidate.charAt(i) != cs.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * same as {@link String#hashCode()} of the range
+     */
+    private static int hash(CharSequence cs, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + cs.charAt(i);
+        }
+        return hash;
+    }
+
+    private static String copy(CharSequence cs, int start, int end) {
+        if (cs instanceof String) {
+            return ((String) cs).substring(start, end);
+        }
+        return new StringBuilder(end - start).append(cs, start, end).toString();
+    }
+
+    private static void count(AtomicLongArray counters) {
+        counters.getAndIncrement(((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING);
+    }
+
+    private static long sum(AtomicLongArray counters) {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += counters.get(i * PADDING);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,418 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table of String keys, with optional values,
+ * shared by {@link StringTableMap} and {@link StringTableSet}.
+ * <p>
+ * Keys, values and the cached key hashes live in three flat arrays, so an entry costs no object of its own.
+ * Collisions are resolved by linear probing, removed slots are marked with a tombstone and reclaimed
+ * when the table is next rebuilt, so that removing never moves other entries and iterators stay valid.
+ * The null key, if any, has a slot of its own at index {@link #nullSlot()}.
+ * </p>
+ * <p>
+ * Keys compare with {@link String#equals(Object)}, or in ignore case mode as {@link JUtil#equalsRelaxed(Object, Object)} does,
+ * in which case the cached hashes are the folded ones of {@link JUtil#hashCodeRelaxed(Object)} and any CharSequence can be looked up.
+ * </p>
+ * Not thread safe.
+ *
+ * @author Yajnesh T
+ */
+final class StringTable {
+
+    static final int MIN_CAPACITY = 8;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private static final String[] NO_KEYS = {};
+    private static final int[] NO_HASHES = {};
+
+    /**
+     * marks a removed slot, compared by identity only
+     */
+    @SuppressWarnings("RedundantStringConstructorCall")
+    private static final String REMOVED = new String("");
+
+    private String[] keys = NO_KEYS;
+    private int[] hashes = NO_HASHES;
+
+    /**
+     * 32 - log2(capacity), the slot is taken from the top bits of the scrambled hash
+     */
+    private int shift = 32;
+
+    /**
+     * null until a non null value is stored, a set never has them
+     */
+    private Object[] values;
+
+    private boolean hasNullKey;
+    private Object nullKeyValue;
+
+    private final boolean ignoreCase;
+
+    /**
+     * keys stored, the null key included
+     */
+    private int size;
+
+    /**
+     * slots holding a key or a tombstone, the null key excluded
+     */
+    private int used;
+
+    /**
+     * structural modifications, for fail fast iterators
+     */
+    int modCount;
+
+    StringTable(int expectedSize) {
+        this(expectedSize, false);
+    }
+
+    /**
+     * @param ignoreCase true to compare keys ignoring case and surrounding whitespace
+     */
+    StringTable(int expectedSize, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        if (expectedSize > 0) {
+            allocate(capacityFor(expectedSize));
+        }
+    }
+
+    /**
+     * @return smallest power of two capacity holding expectedSize keys below the load factor of 3/4
+     */
+    static int capacityFor(int expectedSize) {
+        long needed = (long) expectedSize * 4 / 3 + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the slot of the null key, one past the table slots
+     */
+    int nullSlot() {
+        return keys.length;
+    }
+
+    /**
+     * @return slot of the key, -1 if absent
+     */
+    int find(Object key) {
+        if (ignoreCase) {
+            if (key instanceof CharSequence) {
+                return findRelaxed((CharSequence) key);
+            }
+        } else if (key instanceof String) {
+            return findKey((String) key);
+        }
+        return key == null && hasNullKey ? keys.length : -1;
+    }
+
+    /**
+     * kept small, so that it inlines into the callers
+     */
+    private int findKey(String key) {
+        String[] keys = this.keys;
+        int[] hashes = this.hashes;
+        int mask = keys.length - 1;
+        if (mask < 0) {
+            return -1;
+        }
+        int hash = key.hashCode();
+        for (int i = slotOf(hash); ; i = (i + 1) & mask) {
+            String k = keys[i];
+            if (k == null) {
+                return -1;
+            }
+            //tombstones have hash 0, a real key of hash 0 still needs the identity check
+            if (hashes[i] == hash && k != REMOVED && (k == key || k.equals(key))) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * same as {@link #findKey(String)} in ignore case mode
+     */
+    private int findRelaxed(CharSequence key) {
+        String[] keys = this.keys;
+        int[] hashes = this.hashes;
+        int mask = keys.length - 1;
+        if (mask < 0) {
+            return -1;
+        }
+        int hash = JUtil.hashCodeRelaxed(key);
+        for (int i = slotOf(hash); ; i = (i + 1) & mask) {
+            String k = keys[i];
+            if (k == null) {
+                return -1;
+            }
+            if (hashes[i] == hash && k != REMOVED && (k == key || JUtil.equalsRelaxed(k, key))) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Find the key, adding it if absent
+     *
+     * @return slot of the key, or <code>-(slot + 1)</code> if it was added
+     * @throws IllegalStateException if the key is absent and the table, at {@link #MAX_CAPACITY}, has no room left
+     */
+    int insert(String key) {
+        if (key == null) {
+            if (hasNullKey) {
+                return keys.length;
+            }
+            hasNullKey = true;
+            size++;
+            modCount++;
+            return -(keys.length + 1);
+        }
+        int hash = ignoreCase ? JUtil.hashCodeRelaxed(key) : key.hashCode();
+        int slot = probe(key, hash);
+        if (slot >= 0) {
+            return slot;
+        }
+        //only an added key may grow the table, so that overwriting a value never moves the entries under an iterator
+        if (used + 1 > keys.length - (keys.length >> 2)) {
+            //too full, grow unless tombstones are most of the load
+            boolean grow = keys.length == 0 || size - (hasNullKey ? 1 : 0) + 1 > keys.length >> 1;
+            if (!grow || keys.length < MAX_CAPACITY) {
+                rebuild(grow ? Math.max(keys.length << 1, MIN_CAPACITY) : keys.length);
+                slot = probe(key, hash);
+            } else if (used + 1 >= keys.length && used > size - (hasNullKey ? 1 : 0)) {
+                //cannot grow any further, run above the load factor, dropping the tombstones once no free slot is left
+                rebuild(keys.length);
+                slot = probe(key, hash);
+            }
+        }
+        int i = -(slot + 1);
+        if (keys[i] == null) {
+            if (used + 1 >= keys.length) {
+                //a free slot must be left to end the probes
+                throw new IllegalStateException("table full");
+            }
+            used++;
+        }
+        keys[i] = key;
+        hashes[i] = hash;
+        size++;
+        modCount++;
+        return -(i + 1);
+    }
+
+    /**
+     * @return slot of the key, or <code>-(slot + 1)</code> of the first tombstone or empty slot it would be added at.
+     * -1 if the table has no slots yet
+     */
+    private int probe(String key, int hash) {
+        String[] keys = this.keys;
+        int mask = keys.length - 1;
+        if (mask < 0) {
+            return -1;
+        }
+        int tombstone = -1;
+        for (int i = slotOf(hash); ; i = (i + 1) & mask) {
+            String k = keys[i];
+            if (k == null) {
+                return -((tombstone >= 0 ? tombstone : i) + 1);
+            }
+            if (k == REMOVED) {
+                if (tombstone < 0) {
+                    tombstone = i;
+                }
+            } else if (hashes[i] == hash && (k == key || (ignoreCase ? JUtil.equalsRelaxed(k, key) : k.equals(key)))) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Remove the key at an occupied slot, no other entry moves
+     */
+    void removeAt(int slot) {
+        if (slot == keys.length) {
+            hasNullKey = false;
+            nullKeyValue = null;
+        } else {
+            keys[slot] = REMOVED;
+            hashes[slot] = 0;
+            if (values != null) {
+                values[slot] = null;
+            }
+        }
+        size--;
+        modCount++;
+    }
+
+    void clear() {
+        if (size == 0 && used == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(hashes, 0);
+        if (values != null) {
+            Arrays.fill(values, null);
+        }
+        hasNullKey = false;
+        nullKeyValue = null;
+        size = 0;
+        used = 0;
+        modCount++;
+    }
+
+    /**
+     * @return true if the slot still holds this very key, it may have moved since
+     */
+    boolean isSlotOf(int slot, String key) {
+        if (slot == keys.length) {
+            return key == null && hasNullKey;
+        }
+        return key != null && slot >= 0 && slot < keys.length && keys[slot] == key;
+    }
+
+    /**
+     * @return key at an occupied slot
+     */
+    String keyAt(int slot) {
+        return slot == keys.length ? null : keys[slot];
+    }
+
+    /**
+     * @return value at an occupied slot
+     */
+    Object valueAt(int slot) {
+        if (slot == keys.length) {
+            return nullKeyValue;
+        }
+        return values == null ? null : values[slot];
+    }
+
+    /**
+     * @return the previous value
+     */
+    Object setValueAt(int slot, Object value) {
+        Object old = valueAt(slot);
+        if (slot == keys.length) {
+            nullKeyValue = value;
+        } else if (values != null) {
+            values[slot] = value;
+        } else if (value != null) {
+            values = new Object[keys.length];
+            values[slot] = value;
+        }
+        return old;
+    }
+
+    /**
+     * Iterate the slots: <code>for (int s = next(0); s &gt;= 0; s = next(s + 1))</code>
+     *
+     * @return first occupied slot at or after from, -1 if none
+     */
+    int next(int from) {
+        for (int i = from; i < keys.length; i++) {
+            String k = keys[i];
+            if (k != null && k != REMOVED) {
+                return i;
+            }
+        }
+        return from <= keys.length && hasNullKey ? keys.length : -1;
+    }
+
+    boolean containsValue(Object value) {
+        for (int s = next(0); s >= 0; s = next(s + 1)) {
+            Object v = valueAt(s);
+            if (value == null ? v == null : value.equals(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Make room for expectedSize keys without rebuilding on the way
+     */
+    void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > keys.length) {
+            rebuild(capacity);
+        }
+    }
+
+    /**
+     * Move every key into fresh arrays of the capacity, dropping the tombstones
+     */
+    private void rebuild(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        Object[] oldValues = values;
+        allocate(capacity);
+        if (oldValues != null) {
+            values = new Object[capacity];
+        }
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            String k = oldKeys[j];
+            if (k == null || k == REMOVED) {
+                continue;
+            }
+            int i = slotOf(oldHashes[j]);
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = k;
+            hashes[i] = oldHashes[j];
+            if (oldValues != null) {
+                values[i] = oldValues[j];
+            }
+            used++;
+        }
+        //slots moved, so does the null key slot
+        modCount++;
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        values = null;
+        used = 0;
+    }
+
+    /**
+     * Fibonacci hashing, similar keys differ mostly in the low bits of their hash,
+     * the multiplication carries that difference into the top bits
+     */
+    private int slotOf(int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+}
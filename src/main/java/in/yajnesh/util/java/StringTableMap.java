@@ -0,0 +1,401 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link Map} of String keys kept in a {@link StringTable}, shared by {@link CompactStringMap} and {@link CaseInsensitiveMap}.
+ * <p>
+ * The full {@link Map} contract is honoured, null keys and values included, and iterators are fail fast.
+ * Entries handed out by {@link #entrySet()} are views, created on iteration. Not thread safe.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+abstract class StringTableMap<V> extends AbstractMap<String, V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean ignoreCase;
+
+    private transient StringTable table;
+    private transient Set<Entry<String, V>> entrySet;
+    private transient Set<String> keySet;
+    private transient Collection<V> values;
+
+    /**
+     * @param expectedSize number of entries to hold without resizing
+     * @param ignoreCase   true to compare keys as {@link JUtil#equalsRelaxed(Object, Object)} does
+     */
+    StringTableMap(int expectedSize, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        table = new StringTable(expectedSize, ignoreCase);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return table.find(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return table.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+        int slot = table.find(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    @Override
+    public V put(String key, V value) {
+        int slot = table.insert(key);
+        if (slot < 0) {
+            table.setValueAt(-slot - 1, value);
+            return null;
+        }
+        return setValueAt(slot, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> map) {
+        table.ensureCapacity(table.size() + map.size());
+        for (Entry<? extends String, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        int slot = table.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V old = valueAt(slot);
+        table.removeAt(slot);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        if (keySet == null) {
+            keySet = new AbstractSet<String>() {
+                @Override
+                public Iterator<String> iterator() {
+                    return new SlotIterator<String>() {
+                        @Override
+                        String at(int slot) {
+                            return table.keyAt(slot);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return table.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    int slot = table.find(o);
+                    if (slot < 0) {
+                        return false;
+                    }
+                    table.removeAt(slot);
+                    return true;
+                }
+
+                @Override
+                public void clear() {
+                    table.clear();
+                }
+            };
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (values == null) {
+            values = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new SlotIterator<V>() {
+                        @Override
+                        V at(int slot) {
+                            return valueAt(slot);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return table.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsValue(o);
+                }
+
+                @Override
+                public void clear() {
+                    table.clear();
+                }
+            };
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, V>>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new SlotIterator<Entry<String, V>>() {
+                        @Override
+                        Entry<String, V> at(int slot) {
+                            return new SlotEntry(slot, table.keyAt(slot));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return table.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return indexOf(o) >= 0;
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    int slot = indexOf(o);
+                    if (slot < 0) {
+                        return false;
+                    }
+                    table.removeAt(slot);
+                    return true;
+                }
+
+                @Override
+                public void clear() {
+                    table.clear();
+                }
+
+                /**
+                 * @return slot of the entry if the map holds it, key and value alike
+                 */
+                private int indexOf(Object o) {
+                    if (!(o instanceof Entry)) {
+                        return -1;
+                    }
+                    Entry<?, ?> entry = (Entry<?, ?>) o;
+                    int slot = table.find(entry.getKey());
+                    if (slot < 0) {
+                        return -1;
+                    }
+                    Object value = entry.getValue();
+                    Object v = table.valueAt(slot);
+                    return value == null ? (v == null ? slot : -1) : (value.equals(v) ? slot : -1);
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) table.valueAt(slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V setValueAt(int slot, V value) {
+        return (V) table.setValueAt(slot, value);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(table.size());
+        for (int s = table.next(0); s >= 0; s = table.next(s + 1)) {
+            out.writeObject(table.keyAt(s));
+            out.writeObject(table.valueAt(s));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        table = new StringTable(size, ignoreCase);
+        for (int i = 0; i < size; i++) {
+            String key = (String) in.readObject();
+            put(key, (V) in.readObject());
+        }
+    }
+
+    /**
+     * Iterates the occupied slots, fail fast
+     */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+
+        private int next = table.next(0);
+        private int last = -1;
+        private int expectedModCount = table.modCount;
+
+        abstract E at(int slot);
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public E next() {
+            if (table.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = table.next(next + 1);
+            return at(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (table.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            table.removeAt(last);
+            last = -1;
+            expectedModCount = table.modCount;
+        }
+    }
+
+    /**
+     * Entry view, reads and writes through to the map
+     */
+    private final class SlotEntry implements Entry<String, V> {
+
+        private final String key;
+        private int slot;
+
+        SlotEntry(int slot, String key) {
+            this.slot = slot;
+            this.key = key;
+        }
+
+        /**
+         * @return slot of the key, found again if the table was rebuilt since. -1 if removed
+         */
+        private int slot() {
+            if (!table.isSlotOf(slot, key)) {
+                slot = table.find(key);
+            }
+            return slot;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            int s = slot();
+            return s < 0 ? null : valueAt(s);
+        }
+
+        @Override
+        public V setValue(V value) {
+            int s = slot();
+            if (s < 0) {
+                throw new IllegalStateException("Entry removed from the map");
+            }
+            return setValueAt(s, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            V value = getValue();
+            //unlike JUtil.equals, null equals null here, as the Map.Entry contract wants
+            return (key == null ? e.getKey() == null : key.equals(e.getKey()))
+                    && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            V value = getValue();
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
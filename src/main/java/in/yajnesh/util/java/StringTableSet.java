@@ -0,0 +1,154 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link java.util.Set} of Strings kept in a {@link StringTable}, shared by {@link CompactStringSet} and {@link CaseInsensitiveSet}.
+ * <p>
+ * The full {@link java.util.Set} contract is honoured, null included, and iterators are fail fast. Not thread safe.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+abstract class StringTableSet extends AbstractSet<String> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean ignoreCase;
+
+    private transient StringTable table;
+
+    /**
+     * @param expectedSize number of elements to hold without resizing
+     * @param ignoreCase   true to compare elements as {@link JUtil#equalsRelaxed(Object, Object)} does
+     */
+    StringTableSet(int expectedSize, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        table = new StringTable(expectedSize, ignoreCase);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return table.find(o) >= 0;
+    }
+
+    @Override
+    public boolean add(String s) {
+        return table.insert(s) < 0;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> collection) {
+        table.ensureCapacity(table.size() + collection.size());
+        return super.addAll(collection);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int slot = table.find(o);
+        if (slot < 0) {
+            return false;
+        }
+        table.removeAt(slot);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int next = table.next(0);
+            private int last = -1;
+            private int expectedModCount = table.modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (table.modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = table.next(next + 1);
+                return table.keyAt(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                if (table.modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                table.removeAt(last);
+                last = -1;
+                expectedModCount = table.modCount;
+            }
+        };
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(table.size());
+        for (int s = table.next(0); s >= 0; s = table.next(s + 1)) {
+            out.writeObject(table.keyAt(s));
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        table = new StringTable(size, ignoreCase);
+        for (int i = 0; i < size; i++) {
+            add((String) in.readObject());
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.LinkedTransferQueue;
+
+/**
+ * Writes collections and maps to an {@link Appendable} in a single pass, within a budget of elements and characters.
+ * Used by the streaming {@link JUtil#stringify(Appendable, String, Collection, int, int) JUtil.stringify}.
+ * <p>
+ * Once a limit is reached nothing more is read from the source, so the cost is bounded by the limits,
+ * not by the size of the collection. The count of elements left out is only written when the size is known
+ * in constant time, see {@link #hasConstantSize(Object)}.
+ * </p>
+ *
+ * @author Yajnesh T
+ */
+final class Stringifier {
+
+    /**
+     * rough guess of the characters per element, to presize builders
+     */
+    static final int ESTIMATED_ELEMENT_LENGTH = 16;
+
+    /**
+     * prefix of the names of ConcurrentSkipListMap and of its views and sub maps
+     */
+    private static final String SKIP_LIST_MAP = ConcurrentSkipListMap.class.getName();
+
+    private final Appendable out;
+    private final int maxElements;
+    private int remainingChars;
+    private boolean truncated;
+
+    Stringifier(Appendable out, int maxElements, int maxChars) {
+        this.out = out;
+        this.maxElements = maxElements < 0 ? Integer.MAX_VALUE : maxElements;
+        this.remainingChars = maxChars < 0 ? Integer.MAX_VALUE : maxChars;
+    }
+
+    /**
+     * @return false for the JDK collections and maps whose size() counts the elements one by one
+     */
+    static boolean hasConstantSize(Object source) {
+        return !(source instanceof ConcurrentLinkedQueue || source instanceof ConcurrentLinkedDeque
+                || source instanceof LinkedTransferQueue || source instanceof ConcurrentSkipListSet
+                || source.getClass().getName().startsWith(SKIP_LIST_MAP));
+    }
+
+    /**
+     * @return the size of the source if known in constant time, 0 otherwise
+     */
+    static int sizeHint(Collection<?> collection) {
+        return collection != null && hasConstantSize(collection) ? collection.size() : 0;
+    }
+
+    /**
+     * @return the size of the source if known in constant time, 0 otherwise
+     */
+    static int sizeHint(Map<?, ?> map) {
+        return map != null && hasConstantSize(map) ? map.size() : 0;
+    }
+
+    /**
+     * @return the initial capacity for a builder holding the output
+     */
+    static int estimateLength(String message, int size, int maxElements, int maxChars) {
+        long elements = maxElements < 0 ? size : Math.min(size, maxElements);
+        long estimate = (message == null ? 0 : message.length() + 2) + elements * ESTIMATED_ELEMENT_LENGTH + JUtil.TRUNCATION_MARKER.length();
+        if (maxChars >= 0) {
+            estimate = Math.min(estimate, (long) maxChars + JUtil.TRUNCATION_MARKER.length());
+        }
+        //do not reserve a huge array up front for a huge collection, the builder grows if needed
+        return (int) Math.min(estimate, 1 << 16);
+    }
+
+    void writeMessage(String message) throws IOException {
+        if (!JUtil.isEmpty(message)) {
+            append(message);
+            append(":\n");
+        }
+    }
+
+    void writeCollection(Collection<?> collection) throws IOException {
+        int written = 0;
+        for (Iterator<?> it = collection.iterator(); it.hasNext() && !truncated; written++) {
+            if (written == maxElements) {
+                truncate(hasConstantSize(collection) ? collection.size() - written : 0);
+                return;
+            }
+            append("e= ");
+            append(it.next());
+        }
+        finish();
+    }
+
+    void writeMap(Map<?, ?> map) throws IOException {
+        int written = 0;
+        //entrySet, a single lookup per entry
+        for (Iterator<? extends Map.Entry<?, ?>> it = map.entrySet().iterator(); it.hasNext() && !truncated; written++) {
+            if (written == maxElements) {
+                truncate(hasConstantSize(map) ? map.size() - written : 0);
+                return;
+            }
+            Map.Entry<?, ?> entry = it.next();
+            append("key = ");
+            append(entry.getKey());
+            append(" , value = ");
+            append(entry.getValue());
+        }
+        finish();
+    }
+
+    private void append(Object o) throws IOException {
+        if (o instanceof CharSequence) {
+            append((CharSequence) o);
+        } else {
+            append(String.valueOf(o));
+        }
+    }
+
+    private void append(CharSequence cs) throws IOException {
+        if (truncated) {
+            return;
+        }
+        int length = cs.length();
+        if (length <= remainingChars) {
+            out.append(cs);
+            remainingChars -= length;
+        } else {
+            out.append(cs, 0, remainingChars);
+            remainingChars = 0;
+            truncated = true;
+        }
+    }
+
+    /**
+     * element limit reached with elements left over
+     *
+     * @param remainingElements count of the elements left out, 0 if not known
+     */
+    private void truncate(int remainingElements) throws IOException {
+        out.append(JUtil.TRUNCATION_MARKER);
+        if (remainingElements > 0) {
+            out.append(" (");
+            appendCount(remainingElements);
+            out.append(" more)");
+        }
+    }
+
+    /**
+     * same as appending String.valueOf(count), without creating the String
+     */
+    private void appendCount(int count) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(count);
+            return;
+        }
+        char[] buffer = ScratchBuffers.chars(NumberUtil.MAX_LONG_LENGTH);
+        try {
+            for (int i = 0, end = NumberUtil.writeLong(buffer, 0, count); i < end; i++) {
+                out.append(buffer[i]);
+            }
+        } finally {
+            ScratchBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * character limit reached
+     */
+    private void finish() throws IOException {
+        if (truncated) {
+            out.append(JUtil.TRUNCATION_MARKER);
+        }
+    }
+
+    /**
+     * Appendable encoding to UTF-8 into a stream, through a scratch buffer.
+     * Same bytes as an OutputStreamWriter, a lone surrogate becomes '?', without its encoder and 8K buffer per use
+     */
+    static final class Utf8Output implements Appendable {
+
+        private static final int BUFFER_SIZE = 8 * 1024;
+
+        private final OutputStream out;
+        private byte[] buffer = ScratchBuffers.bytes(BUFFER_SIZE);
+        private int count;
+
+        /**
+         * high surrogate waiting for its low surrogate, 0 if none
+         */
+        private char high;
+
+        Utf8Output(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public Appendable append(CharSequence cs) throws IOException {
+            return cs == null ? append("null") : append(cs, 0, cs.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence cs, int start, int end) throws IOException {
+            if (cs == null) {
+                return append("null", start, end);
+            }
+            for (int i = start; i < end; i++) {
+                write(cs.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            write(c);
+            return this;
+        }
+
+        /**
+         * Write out the buffer and flush the stream. A high surrogate left waiting is dropped, as an OutputStreamWriter does
+         */
+        void flush() throws IOException {
+            high = 0;
+            out.write(buffer, 0, count);
+            count = 0;
+            out.flush();
+        }
+
+        /**
+         * Give back the buffer, nothing can be written afterwards
+         */
+        void release() {
+            ScratchBuffers.release(buffer);
+            buffer = null;
+        }
+
+        private void write(char c) throws IOException {
+            if (high != 0) {
+                char h = high;
+                high = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int cp = Character.toCodePoint(h, c);
+                    put(0xF0 | cp >> 18);
+                    put(0x80 | cp >> 12 & 0x3F);
+                    put(0x80 | cp >> 6 & 0x3F);
+                    put(0x80 | cp & 0x3F);
+                    return;
+                }
+                put('?');
+            }
+            if (c < 0x80) {
+                put(c);
+            } else if (c < 0x800) {
+                put(0xC0 | c >> 6);
+                put(0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c)) {
+                high = c;
+            } else if (Character.isLowSurrogate(c)) {
+                put('?');
+            } else {
+                put(0xE0 | c >> 12);
+                put(0x80 | c >> 6 & 0x3F);
+                put(0x80 | c & 0x3F);
+            }
+        }
+
+        private void put(int b) throws IOException {
+            if (count == buffer.length) {
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+            buffer[count++] = (byte) b;
+        }
+    }
+}
@@ -19,6 +19,9 @@ along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
 (ɔ) Yajnesh T
 */
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Collection of time util methods
  *
@@ -28,6 +31,82 @@ along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
 @SuppressWarnings({"WeakerAccess", "unused"})
 public class TimeUtil {
 
+    /**
+     * Length of an ISO-8601 date-time written by {@link #writeIsoDateTime(char[], int, long)}, Eg. <code>2026-10-18T12:34:56.789Z</code>
+     */
+    public static final int ISO_DATE_TIME_LENGTH = 24;
+
+    static final long MILLIS_PER_SECOND = 1000;
+    static final long SECONDS_PER_DAY = 86400;
+    static final long MILLIS_PER_DAY = MILLIS_PER_SECOND * SECONDS_PER_DAY;
+    static final long NANOS_PER_SECOND = 1000000000;
+    static final long NANOS_PER_MILLI = 1000000;
+
+    /**
+     * epoch seconds whose epoch nanos fit in a long, whatever the fraction
+     */
+    private static final long MAX_NANOS_EPOCH_SECOND = Long.MAX_VALUE / NANOS_PER_SECOND - 1;
+    private static final long MIN_NANOS_EPOCH_SECOND = Long.MIN_VALUE / NANOS_PER_SECOND;
+
+    /**
+     * largest offset from UTC, as for java.time.ZoneOffset
+     */
+    private static final int MAX_OFFSET_HOURS = 18;
+
+    /**
+     * "00" to "99", shared by every call of {@link #getTwoDigitValue(long)}
+     */
+    private static final String[] TWO_DIGIT_VALUES = new String[100];
+
+    /**
+     * tens and ones digit of 0 to 99, so that a pair of digits takes a single lookup
+     */
+    static final char[] DIGIT_TENS = new char[100];
+    static final char[] DIGIT_ONES = new char[100];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (char) ('0' + i / 10);
+            DIGIT_ONES[i] = (char) ('0' + i % 10);
+            TWO_DIGIT_VALUES[i] = new String(new char[]{DIGIT_TENS[i], DIGIT_ONES[i]}).intern();
+        }
+    }
+
+    /**
+     * "yyyy-MM-dd'T'HH:mm:ss" of the last second formatted, consecutive timestamps mostly share it
+     */
+    private static volatile Prefix lastSecond = new Prefix(Long.MIN_VALUE, null);
+
+    /**
+     * "yyyy-MM-dd" of the last day formatted
+     */
+    private static volatile Prefix lastDay = new Prefix(Long.MIN_VALUE, null);
+
+    /**
+     * The last date parsed, consecutive timestamps mostly share it. Packed as <code>date &lt;&lt; 32 | epochDay</code>,
+     * date being <code>year * 10000 + month * 100 + day</code>, so that a single volatile long publishes both without allocating
+     */
+    private static volatile long lastParsedDay = -1L << 32;
+
+    /**
+     * Longest text written by {@link #writeDuration(char[], int, long, TimeUnit)}, Eg. <code>-106751d23h47m16s854ms775us808ns</code>
+     */
+    public static final int MAX_DURATION_LENGTH = 32;
+
+    /**
+     * units of a compact duration, largest first, with their suffixes
+     */
+    private static final TimeUnit[] DURATION_UNITS = {TimeUnit.DAYS, TimeUnit.HOURS, TimeUnit.MINUTES, TimeUnit.SECONDS,
+            TimeUnit.MILLISECONDS, TimeUnit.MICROSECONDS, TimeUnit.NANOSECONDS};
+    private static final String[] DURATION_SUFFIXES = {"d", "h", "m", "s", "ms", "us", "ns"};
+
+    /**
+     * nanoseconds of the hours, minutes and seconds fields of a clock duration
+     */
+    private static final long[] CLOCK_FIELD_NANOS = {TimeUnit.HOURS.toNanos(1), TimeUnit.MINUTES.toNanos(1), TimeUnit.SECONDS.toNanos(1)};
+
+    private static final CachedClock CLOCK = new CachedClock();
+
     /**
      * Get two digit value from input value
      *
@@ -38,15 +117,1021 @@ public class TimeUtil {
      *     2) 20 -> 20} </pre>
      */
     public static String getTwoDigitValue(long value) {
-        StringBuilder result = new StringBuilder();
+        if (value >= 0 && value < 100) {
+            return TWO_DIGIT_VALUES[(int) value];
+        }
+        char[] buffer = ScratchBuffers.chars(NumberUtil.MAX_LONG_LENGTH + 1);
+        try {
+            int length = 0;
+            if (value < 10) {
+                buffer[length++] = '0';
+            }
+            length = NumberUtil.writeLong(buffer, length, value);
+            return new String(buffer, 0, length);
+        } finally {
+            ScratchBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Append the value zero padded to two digits, without creating a String
+     *
+     * @param sb    the builder to append to
+     * @param value value, 0 to 99. Values above are appended in full
+     * @return the same builder
+     * @see #getTwoDigitValue(long)
+     */
+    public static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        if (value >= 0 && value < 100) {
+            return sb.append(DIGIT_TENS[value]).append(DIGIT_ONES[value]);
+        }
+        return sb.append(getTwoDigitValue(value));
+    }
+
+    /**
+     * Append the value zero padded to two digits, without creating a String
+     *
+     * @param appendable where to append to Eg. a Writer
+     * @param value      value, 0 to 99. Values above are appended in full
+     * @throws IOException if the appendable throws
+     * @see #getTwoDigitValue(long)
+     */
+    public static void appendTwoDigits(Appendable appendable, int value) throws IOException {
+        if (value >= 0 && value < 100) {
+            appendable.append(DIGIT_TENS[value]).append(DIGIT_ONES[value]);
+        } else {
+            appendable.append(getTwoDigitValue(value));
+        }
+    }
+
+    /**
+     * Write the value zero padded to two digits
+     *
+     * @param buffer destination, needs 2 chars from offset
+     * @param offset where to write
+     * @param value  value, 0 to 99
+     * @return offset after the digits
+     */
+    public static int writeTwoDigits(char[] buffer, int offset, int value) {
+        buffer[offset] = DIGIT_TENS[value];
+        buffer[offset + 1] = DIGIT_ONES[value];
+        return offset + 2;
+    }
+
+    /**
+     * Write the value zero padded to two ASCII digits
+     *
+     * @param buffer destination, needs 2 bytes from offset
+     * @param offset where to write
+     * @param value  value, 0 to 99
+     * @return offset after the digits
+     */
+    public static int writeTwoDigits(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) DIGIT_TENS[value];
+        buffer[offset + 1] = (byte) DIGIT_ONES[value];
+        return offset + 2;
+    }
+
+    /**
+     * Append the UTC time of day, <code>HH:mm:ss</code> or <code>HH:mm:ss.SSS</code>
+     *
+     * @param sb          the builder to append to
+     * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+     * @param withMillis  true to append the milliseconds as well
+     * @return the same builder
+     */
+    public static StringBuilder appendTime(StringBuilder sb, long epochMillis, boolean withMillis) {
+        char[] prefix = secondPrefix(floorDiv(epochMillis, MILLIS_PER_SECOND));
+        sb.append(prefix, prefix.length - 8, 8);
+        if (withMillis) {
+            appendMillis(sb, (int) floorMod(epochMillis, MILLIS_PER_SECOND));
+        }
+        return sb;
+    }
+
+    /**
+     * Append the UTC ISO-8601 date-time, Eg. <code>2026-10-18T12:34:56.789Z</code>
+     * <p>
+     * The text up to the seconds is cached, timestamps within the same second only format the milliseconds
+     * </p>
+     *
+     * @param sb          the builder to append to
+     * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+     * @return the same builder
+     */
+    public static StringBuilder appendIsoDateTime(StringBuilder sb, long epochMillis) {
+        sb.append(secondPrefix(floorDiv(epochMillis, MILLIS_PER_SECOND)));
+        appendMillis(sb, (int) floorMod(epochMillis, MILLIS_PER_SECOND));
+        return sb.append('Z');
+    }
+
+    /**
+     * Append the UTC ISO-8601 date-time, Eg. <code>2026-10-18T12:34:56.789Z</code>
+     *
+     * @param appendable  where to append to Eg. a Writer
+     * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+     * @throws IOException if the appendable throws
+     * @see #appendIsoDateTime(StringBuilder, long)
+     */
+    public static void appendIsoDateTime(Appendable appendable, long epochMillis) throws IOException {
+        char[] prefix = secondPrefix(floorDiv(epochMillis, MILLIS_PER_SECOND));
+        for (char c : prefix) {
+            appendable.append(c);
+        }
+        int millis = (int) floorMod(epochMillis, MILLIS_PER_SECOND);
+        appendable.append('.').append((char) ('0' + millis / 100)).append(DIGIT_TENS[millis % 100]).append(DIGIT_ONES[millis % 100]);
+        appendable.append('Z');
+    }
+
+    /**
+     * Write the UTC ISO-8601 date-time, Eg. <code>2026-10-18T12:34:56.789Z</code>
+     *
+     * @param buffer      destination, needs {@link #ISO_DATE_TIME_LENGTH} chars from offset for the years 0000 to 9999
+     * @param offset      where to write
+     * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+     * @return offset after the date-time
+     */
+    public static int writeIsoDateTime(char[] buffer, int offset, long epochMillis) {
+        char[] prefix = secondPrefix(floorDiv(epochMillis, MILLIS_PER_SECOND));
+        System.arraycopy(prefix, 0, buffer, offset, prefix.length);
+        offset += prefix.length;
+        int millis = (int) floorMod(epochMillis, MILLIS_PER_SECOND);
+        buffer[offset++] = '.';
+        buffer[offset++] = (char) ('0' + millis / 100);
+        offset = writeTwoDigits(buffer, offset, millis % 100);
+        buffer[offset++] = 'Z';
+        return offset;
+    }
+
+    /**
+     * Write the UTC ISO-8601 date-time as ASCII, Eg. <code>2026-10-18T12:34:56.789Z</code>
+     *
+     * @param buffer      destination, needs {@link #ISO_DATE_TIME_LENGTH} bytes from offset for the years 0000 to 9999
+     * @param offset      where to write
+     * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+     * @return offset after the date-time
+     */
+    public static int writeIsoDateTime(byte[] buffer, int offset, long epochMillis) {
+        char[] prefix = secondPrefix(floorDiv(epochMillis, MILLIS_PER_SECOND));
+        for (char c : prefix) {
+            buffer[offset++] = (byte) c;
+        }
+        int millis = (int) floorMod(epochMillis, MILLIS_PER_SECOND);
+        buffer[offset++] = '.';
+        buffer[offset++] = (byte) ('0' + millis / 100);
+        offset = writeTwoDigits(buffer, offset, millis % 100);
+        buffer[offset++] = 'Z';
+        return offset;
+    }
+
+    /**
+     * Get the UTC ISO-8601 date-time, Eg. <code>2026-10-18T12:34:56.789Z</code>
+     *
+     * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+     * @return formatted date-time
+     * @see #appendIsoDateTime(StringBuilder, long)
+     */
+    public static String formatIsoDateTime(long epochMillis) {
+        char[] buffer = ScratchBuffers.chars(ISO_DATE_TIME_LENGTH);
+        try {
+            return new String(buffer, 0, writeIsoDateTime(buffer, 0, epochMillis));
+        } finally {
+            ScratchBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Parse an ISO-8601 / RFC 3339 date-time into epoch milliseconds, without exceptions or allocation
+     * <p>
+     * same as calling {@link #parseIsoDateTime(CharSequence, int, int, long) parseIsoDateTime(cs, 0, cs.length(), defaultValue)}
+     * </p>
+     *
+     * @param cs           the text Eg. <code>"2026-10-18T12:34:56.789Z"</code>
+     * @param defaultValue returned in case of failure
+     * @return milliseconds since 1970-01-01T00:00:00Z, defaultValue if cs is null or not a date-time
+     */
+    public static long parseIsoDateTime(CharSequence cs, long defaultValue) {
+        return cs == null ? defaultValue : parseIsoDateTime(cs, 0, cs.length(), defaultValue);
+    }
+
+    /**
+     * Parse an ISO-8601 / RFC 3339 date-time from a range of the text into epoch milliseconds, without exceptions or allocation.
+     * The inverse of {@link #writeIsoDateTime(char[], int, long)}.
+     * <p>
+     * Accepts <code>yyyy-MM-dd'T'HH:mm[:ss][.fraction][offset]</code>, with surrounding whitespace:
+     * </p>
+     * <ul>
+     * <li>the separator may also be a lower case 't' or a space, and the fraction may follow a comma, as in log files</li>
+     * <li>the fraction may have any number of digits, those beyond the milliseconds are truncated</li>
+     * <li>the offset is <code>Z</code>, <code>+HH:mm</code>, <code>+HHmm</code> or <code>+HH</code>, up to 18 hours.
+     * Without an offset the date-time is taken to be UTC</li>
+     * <li>a leap second, <code>23:59:60</code>, is read as <code>23:59:59</code>, as java.time does</li>
+     * </ul>
+     * Fields are decoded at fixed positions, and the epoch day of the last date parsed is cached,
+     * so that timestamps of the same day, as consecutive log lines mostly are, skip the calendar arithmetic.
+     * <p>
+     * Usage: <code>long millis = TimeUtil.parseIsoDateTime(line, 0, 29, -1);</code>
+     * </p>
+     *
+     * @param cs           the text
+     * @param start        start of the date-time, inclusive
+     * @param end          end of the date-time, exclusive
+     * @param defaultValue returned in case of failure
+     * @return milliseconds since 1970-01-01T00:00:00Z, defaultValue if cs is null or the range is not a date-time
+     * @see #parseIsoDateTimeNanos(CharSequence, int, int, long)
+     */
+    public static long parseIsoDateTime(CharSequence cs, int start, int end, long defaultValue) {
+        if (cs == null || start < 0 || end > cs.length() || start > end) {
+            return defaultValue;
+        }
+        return parseIso(cs, null, start, end, false, defaultValue);
+    }
+
+    /**
+     * Parse an ISO-8601 / RFC 3339 date-time from a range of ASCII bytes into epoch milliseconds, Eg. a field of a JSON or log file
+     *
+     * @param bytes        ASCII bytes holding the date-time
+     * @param start        start of the date-time, inclusive
+     * @param end          end of the date-time, exclusive
+     * @param defaultValue returned in case of failure
+     * @return milliseconds since 1970-01-01T00:00:00Z, defaultValue if bytes is null or the range is not a date-time
+     * @see #parseIsoDateTime(CharSequence, int, int, long)
+     */
+    public static long parseIsoDateTime(byte[] bytes, int start, int end, long defaultValue) {
+        if (bytes == null || start < 0 || end > bytes.length || start > end) {
+            return defaultValue;
+        }
+        return parseIso(null, bytes, start, end, false, defaultValue);
+    }
+
+    /**
+     * Parse an ISO-8601 / RFC 3339 date-time from a range of the text into epoch nanoseconds, keeping up to 9 fraction digits
+     *
+     * @param cs           the text Eg. <code>"2026-10-18T12:34:56.123456789+05:30"</code>
+     * @param start        start of the date-time, inclusive
+     * @param end          end of the date-time, exclusive
+     * @param defaultValue returned in case of failure
+     * @return nanoseconds since 1970-01-01T00:00:00Z, defaultValue if cs is null, the range is not a date-time
+     * or it is outside the years 1677 to 2262 a long of nanoseconds holds
+     * @see #parseIsoDateTime(CharSequence, int, int, long)
+     */
+    public static long parseIsoDateTimeNanos(CharSequence cs, int start, int end, long defaultValue) {
+        if (cs == null || start < 0 || end > cs.length() || start > end) {
+            return defaultValue;
+        }
+        return parseIso(cs, null, start, end, true, defaultValue);
+    }
+
+    /**
+     * Parse an ISO-8601 / RFC 3339 date-time from a range of ASCII bytes into epoch nanoseconds
+     *
+     * @param bytes        ASCII bytes holding the date-time
+     * @param start        start of the date-time, inclusive
+     * @param end          end of the date-time, exclusive
+     * @param defaultValue returned in case of failure
+     * @return nanoseconds since 1970-01-01T00:00:00Z, defaultValue if bytes is null, the range is not a date-time
+     * or it is outside the years 1677 to 2262 a long of nanoseconds holds
+     * @see #parseIsoDateTimeNanos(CharSequence, int, int, long)
+     */
+    public static long parseIsoDateTimeNanos(byte[] bytes, int start, int end, long defaultValue) {
+        if (bytes == null || start < 0 || end > bytes.length || start > end) {
+            return defaultValue;
+        }
+        return parseIso(null, bytes, start, end, true, defaultValue);
+    }
+
+    /**
+     * Start the cached clock. A single daemon thread reads the time every resolutionMillis,
+     * after which {@link #currentTimeMillis()} and {@link #currentIsoDateTime()} cost a single volatile read.
+     * <p>
+     * Starting a running clock only changes its resolution
+     * </p>
+     *
+     * @param resolutionMillis how often the time is read Eg. 1 or 10, at least 1
+     * @see #stopClock()
+     */
+    public static void startClock(long resolutionMillis) {
+        CLOCK.start(resolutionMillis);
+    }
+
+    /**
+     * Stop the cached clock, the time is read directly from then on
+     *
+     * @see #startClock(long)
+     */
+    public static void stopClock() {
+        CLOCK.stop();
+    }
+
+    /**
+     * Is the cached clock running?
+     *
+     * @return true if started and not stopped
+     */
+    public static boolean isClockRunning() {
+        return CLOCK.isRunning();
+    }
+
+    /**
+     * Current time, from the cached clock if it is running, otherwise from {@link System#currentTimeMillis()}
+     *
+     * @return milliseconds since 1970-01-01T00:00:00Z, accurate to the resolution of the clock
+     * @see #startClock(long)
+     */
+    public static long currentTimeMillis() {
+        CachedClock.Tick tick = CLOCK.tick();
+        return tick == null ? System.currentTimeMillis() : tick.millis;
+    }
+
+    /**
+     * Current time as UTC ISO-8601 date-time, Eg. <code>2026-10-18T12:34:56.789Z</code>
+     * <p>
+     * While the cached clock is running the same String instance is returned until the next tick, nothing is allocated
+     * </p>
+     *
+     * @return formatted current time, accurate to the resolution of the clock
+     * @see #startClock(long)
+     */
+    public static String currentIsoDateTime() {
+        CachedClock.Tick tick = CLOCK.tick();
+        return tick == null ? formatIsoDateTime(System.currentTimeMillis()) : tick.isoDateTime;
+    }
+
+    /**
+     * Append the duration in compact form, Eg. <code>1d2h3m4s567ms</code> or <code>1h30m</code>
+     * <p>
+     * Only the non zero units are written, down to the unit of the duration
+     * </p>
+     *
+     * @param sb       the builder to append to
+     * @param duration the duration, may be negative
+     * @param unit     unit of the duration Eg. {@link TimeUnit#NANOSECONDS}
+     * @return the same builder
+     * @see #parseDuration(CharSequence, TimeUnit, long)
+     */
+    public static StringBuilder appendDuration(StringBuilder sb, long duration, TimeUnit unit) {
+        if (duration < 0) {
+            sb.append('-');
+        }
+        //counted down from the negative value, the magnitude of Long.MIN_VALUE does not fit a long
+        long remaining = duration > 0 ? -duration : duration;
+        boolean any = false;
+        for (int u = 0; u < DURATION_UNITS.length; u++) {
+            long size = unit.convert(1, DURATION_UNITS[u]);
+            if (size == 0) {
+                break;
+            }
+            long count = remaining / size;
+            remaining -= count * size;
+            if (count < 0) {
+                appendMagnitude(sb, count).append(DURATION_SUFFIXES[u]);
+                any = true;
+            }
+        }
+        if (!any) {
+            sb.append('0').append(suffix(unit));
+        }
+        return sb;
+    }
+
+    /**
+     * Write the duration in compact form, Eg. <code>1d2h3m4s567ms</code> or <code>1h30m</code>
+     *
+     * @param buffer   destination, needs at most {@link #MAX_DURATION_LENGTH} chars from offset
+     * @param offset   where to write
+     * @param duration the duration, may be negative
+     * @param unit     unit of the duration Eg. {@link TimeUnit#NANOSECONDS}
+     * @return offset after the duration
+     * @see #appendDuration(StringBuilder, long, TimeUnit)
+     */
+    public static int writeDuration(char[] buffer, int offset, long duration, TimeUnit unit) {
+        if (duration < 0) {
+            buffer[offset++] = '-';
+        }
+        long remaining = duration > 0 ? -duration : duration;
+        int start = offset;
+        for (int u = 0; u < DURATION_UNITS.length; u++) {
+            long size = unit.convert(1, DURATION_UNITS[u]);
+            if (size == 0) {
+                break;
+            }
+            long count = remaining / size;
+            remaining -= count * size;
+            if (count < 0) {
+                offset = writeMagnitude(buffer, offset, count);
+                offset = writeText(buffer, offset, DURATION_SUFFIXES[u]);
+            }
+        }
+        if (offset == start) {
+            buffer[offset++] = '0';
+            offset = writeText(buffer, offset, suffix(unit));
+        }
+        return offset;
+    }
+
+    /**
+     * Append the magnitude of a negative or zero value, Long.MIN_VALUE included
+     */
+    private static StringBuilder appendMagnitude(StringBuilder sb, long negative) {
+        if (negative < -9) {
+            sb.append(-(negative / 10));
+        }
+        return sb.append((char) ('0' - negative % 10));
+    }
+
+    /**
+     * Write the magnitude of a negative or zero value, Long.MIN_VALUE included
+     */
+    private static int writeMagnitude(char[] buffer, int offset, long negative) {
+        if (negative < -9) {
+            offset = NumberUtil.writeLong(buffer, offset, -(negative / 10));
+        }
+        buffer[offset++] = (char) ('0' - negative % 10);
+        return offset;
+    }
+
+    /**
+     * Get the duration in compact form, Eg. <code>1d2h3m4s567ms</code> or <code>1h30m</code>
+     *
+     * @param duration the duration, may be negative
+     * @param unit     unit of the duration Eg. {@link TimeUnit#NANOSECONDS}
+     * @return formatted duration
+     * @see #appendDuration(StringBuilder, long, TimeUnit)
+     */
+    public static String formatDuration(long duration, TimeUnit unit) {
+        char[] buffer = ScratchBuffers.chars(MAX_DURATION_LENGTH);
+        try {
+            return new String(buffer, 0, writeDuration(buffer, 0, duration, unit));
+        } finally {
+            ScratchBuffers.release(buffer);
+        }
+    }
+
+    /**
+     * Append the duration in clock form, <code>HH:mm:ss</code> or <code>HH:mm:ss.SSS</code>,
+     * prefixed by the days if any, Eg. <code>1d 02:03:04.567</code>
+     *
+     * @param sb         the builder to append to
+     * @param millis     the duration in milliseconds, may be negative
+     * @param withMillis true to append the milliseconds as well
+     * @return the same builder
+     * @see #parseDuration(CharSequence, TimeUnit, long)
+     */
+    public static StringBuilder appendClockDuration(StringBuilder sb, long millis, boolean withMillis) {
+        if (millis < 0) {
+            sb.append('-');
+        }
+        long remaining = millis > 0 ? -millis : millis;
+        long days = -(remaining / MILLIS_PER_DAY);
+        int millisOfDay = (int) -(remaining % MILLIS_PER_DAY);
+        if (days > 0) {
+            sb.append(days).append("d ");
+        }
+        int secondOfDay = millisOfDay / 1000;
+        appendTwoDigits(sb, secondOfDay / 3600).append(':');
+        appendTwoDigits(sb, secondOfDay / 60 % 60).append(':');
+        appendTwoDigits(sb, secondOfDay % 60);
+        if (withMillis) {
+            appendMillis(sb, millisOfDay % 1000);
+        }
+        return sb;
+    }
+
+    /**
+     * Write the duration in clock form, <code>HH:mm:ss</code> or <code>HH:mm:ss.SSS</code>,
+     * prefixed by the days if any, Eg. <code>1d 02:03:04.567</code>
+     *
+     * @param buffer     destination, needs at most {@link #MAX_DURATION_LENGTH} chars from offset
+     * @param offset     where to write
+     * @param millis     the duration in milliseconds, may be negative
+     * @param withMillis true to write the milliseconds as well
+     * @return offset after the duration
+     * @see #appendClockDuration(StringBuilder, long, boolean)
+     */
+    public static int writeClockDuration(char[] buffer, int offset, long millis, boolean withMillis) {
+        if (millis < 0) {
+            buffer[offset++] = '-';
+        }
+        long remaining = millis > 0 ? -millis : millis;
+        long days = -(remaining / MILLIS_PER_DAY);
+        int millisOfDay = (int) -(remaining % MILLIS_PER_DAY);
+        if (days > 0) {
+            offset = NumberUtil.writeLong(buffer, offset, days);
+            offset = writeText(buffer, offset, "d ");
+        }
+        int secondOfDay = millisOfDay / 1000;
+        offset = writeTwoDigits(buffer, offset, secondOfDay / 3600);
+        buffer[offset++] = ':';
+        offset = writeTwoDigits(buffer, offset, secondOfDay / 60 % 60);
+        buffer[offset++] = ':';
+        offset = writeTwoDigits(buffer, offset, secondOfDay % 60);
+        if (withMillis) {
+            int ms = millisOfDay % 1000;
+            buffer[offset++] = '.';
+            buffer[offset++] = (char) ('0' + ms / 100);
+            offset = writeTwoDigits(buffer, offset, ms % 100);
+        }
+        return offset;
+    }
+
+    /**
+     * Parse a duration, without regex, exceptions or boxing
+     * <p>
+     * same as calling {@link #parseDuration(CharSequence, int, int, TimeUnit, long) parseDuration(cs, 0, cs.length(), unit, defaultValue)}
+     * </p>
+     *
+     * @param cs           the text Eg. <code>"1h30m"</code>
+     * @param unit         unit of the result, and of a plain number without suffix
+     * @param defaultValue returned in case of failure
+     * @return the duration in unit, truncated. defaultValue if cs is null or not a duration
+     */
+    public static long parseDuration(CharSequence cs, TimeUnit unit, long defaultValue) {
+        return cs == null ? defaultValue : parseDuration(cs, 0, cs.length(), unit, defaultValue);
+    }
+
+    /**
+     * Parse a duration from a range of the text, without regex, exceptions or boxing.
+     * <p>
+     * Accepts, with an optional sign and surrounding whitespace:
+     * </p>
+     * <ul>
+     * <li>compact form, Eg. <code>"1h30m"</code>, <code>"1d 2h"</code>, <code>"1.5s"</code>, <code>"250ms"</code>.
+     * Suffixes are d, h, m, s, ms, us and ns</li>
+     * <li>clock form, <code>"HH:mm:ss"</code> or <code>"mm:ss"</code>, with optional fraction of seconds and days,
+     * Eg. <code>"02:03:04"</code>, <code>"1d 02:03:04.567"</code></li>
+     * <li>a plain number, taken to be in unit, Eg. <code>"500"</code></li>
+     * </ul>
+     * Durations must fit in a long of nanoseconds, up to {@link Long#MAX_VALUE} either way, about 292 years.
+     *
+     * @param cs           the text
+     * @param start        start of the duration, inclusive
+     * @param end          end of the duration, exclusive
+     * @param unit         unit of the result, and of a plain number without suffix
+     * @param defaultValue returned in case of failure
+     * @return the duration in unit, truncated. defaultValue if cs is null or not a duration
+     */
+    public static long parseDuration(CharSequence cs, int start, int end, TimeUnit unit, long defaultValue) {
+        if (cs == null || unit == null || start < 0 || end > cs.length() || start > end) {
+            return defaultValue;
+        }
+        start = JUtil.trimStart(cs, start, end);
+        end = JUtil.trimEnd(cs, start, end);
+        if (start == end) {
+            return defaultValue;
+        }
+        boolean negative = cs.charAt(start) == '-';
+        if (negative || cs.charAt(start) == '+') {
+            start++;
+        }
+        boolean clock = false;
+        for (int i = start; i < end && !clock; i++) {
+            clock = cs.charAt(i) == ':';
+        }
+        long nanos = clock ? parseClockNanos(cs, start, end) : parseCompactNanos(cs, start, end, unit.toNanos(1));
+        if (nanos < 0) {
+            return defaultValue;
+        }
+        long result = unit.convert(nanos, TimeUnit.NANOSECONDS);
+        return negative ? -result : result;
+    }
+
+    /**
+     * @return nanoseconds, -1 if invalid or overflowing
+     */
+    private static long parseCompactNanos(CharSequence cs, int i, int end, long defaultUnitNanos) {
+        long total = 0;
+        boolean any = false;
+        while (i < end) {
+            i = JUtil.trimStart(cs, i, end);
+            int numberStart = i;
+            long value = 0;
+            for (char c; i < end && (c = cs.charAt(i)) >= '0' && c <= '9'; i++) {
+                if (value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            int integerEnd = i;
+            int fractionStart = i;
+            if (i < end && cs.charAt(i) == '.') {
+                fractionStart = ++i;
+                while (i < end && cs.charAt(i) >= '0' && cs.charAt(i) <= '9') {
+                    i++;
+                }
+            }
+            int fractionEnd = i;
+            if (integerEnd == numberStart && fractionEnd == fractionStart) {
+                return -1;
+            }
+            int suffixStart = i;
+            while (i < end && Character.isLetter(cs.charAt(i))) {
+                i++;
+            }
+            long unitNanos;
+            if (suffixStart == i) {
+                //a plain number, only on its own
+                if (any || i != end) {
+                    return -1;
+                }
+                unitNanos = defaultUnitNanos;
+            } else {
+                unitNanos = unitNanos(cs, suffixStart, i);
+                if (unitNanos < 0) {
+                    return -1;
+                }
+            }
+            long part = scale(value, cs, fractionStart, fractionEnd, unitNanos);
+            if (part < 0 || total > Long.MAX_VALUE - part) {
+                return -1;
+            }
+            total += part;
+            any = true;
+        }
+        return any ? total : -1;
+    }
+
+    /**
+     * @return nanoseconds, -1 if invalid or overflowing
+     */
+    private static long parseClockNanos(CharSequence cs, int i, int end) {
+        long total = 0;
+        //optional days, "1d 02:03:04"
+        int daysEnd = i;
+        while (daysEnd < end && cs.charAt(daysEnd) >= '0' && cs.charAt(daysEnd) <= '9') {
+            daysEnd++;
+        }
+        if (daysEnd < end && daysEnd > i && cs.charAt(daysEnd) == 'd') {
+            total = scale(NumberUtil.parseLong(cs, i, daysEnd, -1), cs, 0, 0, TimeUnit.DAYS.toNanos(1));
+            if (total < 0) {
+                return -1;
+            }
+            i = JUtil.trimStart(cs, daysEnd + 1, end);
+        }
+
+        int colons = 0;
+        for (int k = i; k < end; k++) {
+            if (cs.charAt(k) == ':') {
+                colons++;
+            }
+        }
+        if (colons < 1 || colons > 2) {
+            return -1;
+        }
+        //"mm:ss" skips the hours
+        int field = colons == 2 ? 0 : 1;
+        for (; field < CLOCK_FIELD_NANOS.length; field++) {
+            int fieldEnd = i;
+            while (fieldEnd < end && cs.charAt(fieldEnd) != ':') {
+                fieldEnd++;
+            }
+            int integerEnd = fieldEnd;
+            int fractionStart = fieldEnd;
+            if (field == CLOCK_FIELD_NANOS.length - 1) {
+                for (int k = i; k < fieldEnd; k++) {
+                    if (cs.charAt(k) == '.') {
+                        integerEnd = k;
+                        fractionStart = k + 1;
+                        break;
+                    }
+                }
+            }
+            long value = NumberUtil.parseLong(cs, i, integerEnd, -1);
+            //the first field may be as large as it likes, the others must stay below 60
+            boolean first = field == (colons == 2 ? 0 : 1);
+            if (value < 0 || cs.charAt(i) == '+' || (!first && value >= 60)) {
+                return -1;
+            }
+            for (int k = fractionStart; k < fieldEnd; k++) {
+                if (cs.charAt(k) < '0' || cs.charAt(k) > '9') {
+                    return -1;
+                }
+            }
+            long part = scale(value, cs, fractionStart, fieldEnd, CLOCK_FIELD_NANOS[field]);
+            if (part < 0 || total > Long.MAX_VALUE - part) {
+                return -1;
+            }
+            total += part;
+            i = fieldEnd + 1;
+        }
+        return total;
+    }
+
+    /**
+     * value.fraction * unitNanos
+     *
+     * @return nanoseconds, -1 if overflowing
+     */
+    private static long scale(long value, CharSequence cs, int fractionStart, int fractionEnd, long unitNanos) {
+        if (value < 0 || value > Long.MAX_VALUE / unitNanos) {
+            return -1;
+        }
+        long nanos = value * unitNanos;
+        long digitNanos = unitNanos;
+        for (int k = fractionStart; k < fractionEnd && digitNanos >= 10; k++) {
+            digitNanos /= 10;
+            nanos += (cs.charAt(k) - '0') * digitNanos;
+        }
+        return nanos < 0 ? -1 : nanos;
+    }
+
+    /**
+     * @return nanoseconds in the unit of the suffix, -1 if unknown
+     */
+    private static long unitNanos(CharSequence cs, int start, int end) {
+        for (int u = 0; u < DURATION_SUFFIXES.length; u++) {
+            String suffix = DURATION_SUFFIXES[u];
+            if (suffix.length() == end - start && regionEquals(cs, start, suffix)) {
+                return DURATION_UNITS[u].toNanos(1);
+            }
+        }
+        //micro sign
+        if (end - start == 2 && (cs.charAt(start) == '\u00B5' || cs.charAt(start) == '\u03BC') && cs.charAt(start + 1) == 's') {
+            return TimeUnit.MICROSECONDS.toNanos(1);
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(CharSequence cs, int start, String text) {
+        for (int k = 0; k < text.length(); k++) {
+            if (cs.charAt(start + k) != text.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String suffix(TimeUnit unit) {
+        for (int u = 0; u < DURATION_UNITS.length; u++) {
+            if (DURATION_UNITS[u] == unit) {
+                return DURATION_SUFFIXES[u];
+            }
+        }
+        return "ns";
+    }
+
+    private static int writeText(char[] buffer, int offset, String text) {
+        text.getChars(0, text.length(), buffer, offset);
+        return offset + text.length();
+    }
+
+    private static void appendMillis(StringBuilder sb, int millis) {
+        sb.append('.').append((char) ('0' + millis / 100)).append(DIGIT_TENS[millis % 100]).append(DIGIT_ONES[millis % 100]);
+    }
+
+    /**
+     * exactly one of cs and bytes is not null, the range is within it
+     *
+     * @return epoch millis or nanos, defaultValue if invalid
+     */
+    private static long parseIso(CharSequence cs, byte[] bytes, int start, int end, boolean nanos, long defaultValue) {
+        while (start < end && charAt(cs, bytes, start) <= ' ') {
+            start++;
+        }
+        while (end > start && charAt(cs, bytes, end - 1) <= ' ') {
+            end--;
+        }
+        //shortest is yyyy-MM-ddTHH:mm
+        if (end - start < 16
+                || charAt(cs, bytes, start + 4) != '-' || charAt(cs, bytes, start + 7) != '-'
+                || charAt(cs, bytes, start + 13) != ':') {
+            return defaultValue;
+        }
+        char separator = charAt(cs, bytes, start + 10);
+        if (separator != 'T' && separator != 't' && separator != ' ') {
+            return defaultValue;
+        }
+        int century = twoDigits(cs, bytes, start);
+        int yearOfCentury = twoDigits(cs, bytes, start + 2);
+        int month = twoDigits(cs, bytes, start + 5);
+        int day = twoDigits(cs, bytes, start + 8);
+        int hour = twoDigits(cs, bytes, start + 11);
+        int minute = twoDigits(cs, bytes, start + 14);
+        if ((century | yearOfCentury | month | day | hour | minute) < 0 || hour > 23 || minute > 59) {
+            return defaultValue;
+        }
+        int i = start + 16;
+        int second = 0;
+        if (i < end && charAt(cs, bytes, i) == ':') {
+            second = i + 3 <= end ? twoDigits(cs, bytes, i + 1) : -1;
+            if (second < 0 || second > 60 || second == 60 && (hour != 23 || minute != 59)) {
+                return defaultValue;
+            }
+            second = Math.min(second, 59);
+            i += 3;
+        }
+        long nanoOfSecond = 0;
+        char c;
+        if (i < end && ((c = charAt(cs, bytes, i)) == '.' || c == ',')) {
+            int fractionStart = ++i;
+            long scale = NANOS_PER_SECOND / 10;
+            int digit;
+            while (i < end && (digit = charAt(cs, bytes, i) - '0') >= 0 && digit <= 9) {
+                nanoOfSecond += digit * scale;
+                scale /= 10;
+                i++;
+            }
+            if (i == fractionStart) {
+                return defaultValue;
+            }
+        }
+        int offsetSeconds = 0;
+        if (i < end) {
+            c = charAt(cs, bytes, i);
+            if (c == 'Z' || c == 'z') {
+                i++;
+            } else if (c == '+' || c == '-') {
+                int offsetHours = i + 3 <= end ? twoDigits(cs, bytes, i + 1) : -1;
+                int offsetMinutes = 0;
+                i += 3;
+                if (i < end) {
+                    if (charAt(cs, bytes, i) == ':') {
+                        i++;
+                    }
+                    offsetMinutes = i + 2 <= end ? twoDigits(cs, bytes, i) : -1;
+                    i += 2;
+                }
+                if (offsetHours < 0 || offsetHours > MAX_OFFSET_HOURS || offsetMinutes < 0 || offsetMinutes > 59
+                        || offsetHours == MAX_OFFSET_HOURS && offsetMinutes > 0) {
+                    return defaultValue;
+                }
+                offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (c == '-' ? -1 : 1);
+            } else {
+                return defaultValue;
+            }
+        }
+        if (i != end) {
+            return defaultValue;
+        }
+        long epochDay = epochDay(century * 100 + yearOfCentury, month, day);
+        if (epochDay == Long.MIN_VALUE) {
+            return defaultValue;
+        }
+        long epochSecond = epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - offsetSeconds;
+        if (!nanos) {
+            return epochSecond * MILLIS_PER_SECOND + nanoOfSecond / NANOS_PER_MILLI;
+        }
+        if (epochSecond > MAX_NANOS_EPOCH_SECOND || epochSecond < MIN_NANOS_EPOCH_SECOND) {
+            //the seconds a long of nanos reaches in part, the product overflows and only a valid sum wraps back to the right sign
+            long result = epochSecond * NANOS_PER_SECOND + nanoOfSecond;
+            boolean fits = epochSecond == MAX_NANOS_EPOCH_SECOND + 1 ? result > 0
+                    : epochSecond == MIN_NANOS_EPOCH_SECOND - 1 && result < 0;
+            return fits ? result : defaultValue;
+        }
+        return epochSecond * NANOS_PER_SECOND + nanoOfSecond;
+    }
+
+    private static char charAt(CharSequence cs, byte[] bytes, int i) {
+        return bytes != null ? (char) (bytes[i] & 0xFF) : cs.charAt(i);
+    }
+
+    /**
+     * @return value of the two digits at i, negative if either is not a digit
+     */
+    private static int twoDigits(CharSequence cs, byte[] bytes, int i) {
+        int tens = charAt(cs, bytes, i) - '0';
+        int ones = charAt(cs, bytes, i + 1) - '0';
+        if ((tens | ones | 9 - tens | 9 - ones) < 0) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+
+    /**
+     * Days since 1970-01-01 of a valid date, from the cache when possible
+     *
+     * @return the epoch day, Long.MIN_VALUE if the month or day is out of range
+     */
+    private static long epochDay(int year, int month, int day) {
+        int date = year * 10000 + month * 100 + day;
+        long cached = lastParsedDay;
+        if ((int) (cached >> 32) == date) {
+            return (int) cached;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+        //years 0 to 9999 keep the epoch day well within an int
+        long epochDay = daysFromCivil(year, month, day);
+        lastParsedDay = (long) date << 32 | (epochDay & 0xFFFFFFFFL);
+        return epochDay;
+    }
 
-        if (value < 10) {
-            result.append('0');
+    static int lengthOfMonth(long year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
         }
-        result.append(value);
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
 
-        return result.toString();
+    /**
+     * "yyyy-MM-dd'T'HH:mm:ss" of the second, from the cache when possible
+     */
+    private static char[] secondPrefix(long epochSecond) {
+        Prefix cached = lastSecond;
+        if (cached.key == epochSecond) {
+            return cached.chars;
+        }
+        char[] date = dayPrefix(floorDiv(epochSecond, SECONDS_PER_DAY));
+        int secondOfDay = (int) floorMod(epochSecond, SECONDS_PER_DAY);
+        char[] chars = new char[date.length + 9];
+        System.arraycopy(date, 0, chars, 0, date.length);
+        int offset = date.length;
+        chars[offset++] = 'T';
+        offset = writeTwoDigits(chars, offset, secondOfDay / 3600);
+        chars[offset++] = ':';
+        offset = writeTwoDigits(chars, offset, secondOfDay / 60 % 60);
+        chars[offset++] = ':';
+        writeTwoDigits(chars, offset, secondOfDay % 60);
+        lastSecond = new Prefix(epochSecond, chars);
+        return chars;
     }
 
+    /**
+     * "yyyy-MM-dd" of the day, from the cache when possible
+     */
+    private static char[] dayPrefix(long epochDay) {
+        Prefix cached = lastDay;
+        if (cached.key == epochDay) {
+            return cached.chars;
+        }
+        long date = civilFromDays(epochDay);
+        long year = date / 10000;
+        int monthDay = (int) Math.abs(date % 10000);
+        int month = monthDay / 100;
+        int day = monthDay % 100;
+        String yearText = year >= 0 && year <= 9999 ? null : Long.toString(year);
+        char[] chars = new char[(yearText == null ? 4 : yearText.length()) + 6];
+        int offset;
+        if (yearText == null) {
+            offset = writeTwoDigits(chars, 0, (int) (year / 100));
+            offset = writeTwoDigits(chars, offset, (int) (year % 100));
+        } else {
+            yearText.getChars(0, yearText.length(), chars, 0);
+            offset = yearText.length();
+        }
+        chars[offset++] = '-';
+        offset = writeTwoDigits(chars, offset, month);
+        chars[offset++] = '-';
+        writeTwoDigits(chars, offset, day);
+        lastDay = new Prefix(epochDay, chars);
+        return chars;
+    }
 
+    /**
+     * Proleptic Gregorian date of the day since 1970-01-01
+     *
+     * @param epochDay days since 1970-01-01
+     * @return date packed as <code>year * 10000 + month * 100 + day</code>, for negative years the month and day are still positive
+     */
+    static long civilFromDays(long epochDay) {
+        long z = epochDay + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year < 0 ? year * 10000 - (month * 100 + day) : year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date, the inverse of {@link #civilFromDays(long)}
+     *
+     * @param year  the year, may be negative
+     * @param month 1 to 12
+     * @param day   1 to the length of the month
+     * @return days since 1970-01-01
+     */
+    static long daysFromCivil(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y != 0 && (x ^ y) < 0) ? q - 1 : q;
+    }
+
+    static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
+
+    /**
+     * A formatted prefix and the second or day it was formatted for, immutable so that it can be published racily
+     */
+    private static final class Prefix {
+        final long key;
+        final char[] chars;
+
+        Prefix(long key, char[] chars) {
+            this.key = key;
+            this.chars = chars;
+        }
+    }
 }
@@ -0,0 +1,447 @@
+package in.yajnesh.util.java;
+
+/*
+This file is part of JavaUtils.
+
+JavaUtils is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+any later version.
+
+Foobar is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with JavaUtils. If not, see <https://www.gnu.org/licenses/>.
+
+(ɔ) Yajnesh T
+*/
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Encodes and decodes {@code application/x-www-form-urlencoded} text, same as {@link java.net.URLEncoder}
+ * and {@link java.net.URLDecoder}, without their per call costs.
+ * <p>
+ * The charset is resolved once per codec, safe characters are looked up in a table,
+ * and text which needs no escaping is returned as the same instance. Output can go to a caller's
+ * {@link StringBuilder} or {@link ByteBuffer}. UTF-8, the usual charset, is encoded and decoded without any
+ * intermediate arrays, unless malformed.
+ * </p>
+ * <p>
+ * Usage: <code>UrlCodec.UTF_8.encode(value)</code>
+ * </p>
+ * Decoding is lenient, a <code>%</code> not followed by two hex digits is kept as is instead of failing.
+ *
+ * @author Yajnesh T
+ * @see JUtil#safeUrlEncode(String, String)
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class UrlCodec {
+
+    /**
+     * The codec for UTF-8, as recommended by the W3C
+     */
+    public static final UrlCodec UTF_8 = new UrlCodec(StandardCharsets.UTF_8);
+
+    /**
+     * characters left as is by URLEncoder, space aside which becomes '+'
+     */
+    private static final boolean[] SAFE = new boolean[256];
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final ConcurrentMap<String, UrlCodec> CODECS = new ConcurrentHashMap<>();
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            SAFE[c] = true;
+            SAFE[c - 'a' + 'A'] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SAFE[c] = true;
+        }
+        SAFE['-'] = true;
+        SAFE['_'] = true;
+        SAFE['.'] = true;
+        SAFE['*'] = true;
+        CODECS.put(StandardCharsets.UTF_8.name(), UTF_8);
+    }
+
+    private final Charset charset;
+    private final boolean utf8;
+    private final boolean latin1;
+
+    /**
+     * ASCII bytes decode to the same char
+     */
+    private final boolean asciiCompatible;
+
+    /**
+     * @param charset charset of the escaped bytes
+     * @see #forCharset(String)
+     */
+    public UrlCodec(Charset charset) {
+        this.charset = charset;
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+        this.latin1 = StandardCharsets.ISO_8859_1.equals(charset);
+        this.asciiCompatible = utf8 || latin1 || StandardCharsets.US_ASCII.equals(charset);
+    }
+
+    /**
+     * Get the codec of a charset, codecs are cached by name
+     *
+     * @param charsetName name of the charset Eg. <code>"UTF-8"</code>
+     * @return the codec, null if the charset is not supported
+     */
+    public static UrlCodec forCharset(String charsetName) {
+        if (charsetName == null) {
+            return null;
+        }
+        UrlCodec codec = CODECS.get(charsetName);
+        if (codec == null) {
+            try {
+                codec = new UrlCodec(Charset.forName(charsetName));
+            } catch (Exception e) {
+                //illegal or unsupported, not cached so that arbitrary names cannot grow the cache
+                return null;
+            }
+            UrlCodec existing = CODECS.putIfAbsent(charsetName, codec);
+            codec = existing == null ? codec : existing;
+        }
+        return codec;
+    }
+
+    /**
+     * @param c the character
+     * @return true if c is written as is, Eg. letters, digits and <code>-_.*</code>
+     */
+    public static boolean isSafe(char c) {
+        return c < 256 && SAFE[c];
+    }
+
+    /**
+     * @return charset of the escaped bytes
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Url encode a string
+     *
+     * @param s String to encode
+     * @return encoded string, the same instance if nothing needs escaping. null if s is null
+     */
+    public String encode(String s) {
+        if (s == null) {
+            return null;
+        }
+        int length = s.length();
+        int i = 0;
+        while (i < length && isSafe(s.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return s;
+        }
+        StringBuilder sb = ScratchBuffers.builder(length + 16);
+        try {
+            sb.append(s, 0, i);
+            encode(s, i, length, sb, null);
+            return sb.toString();
+        } finally {
+            ScratchBuffers.release(sb);
+        }
+    }
+
+    /**
+     * Url encode into a builder
+     *
+     * @param cs text to encode, null appends nothing
+     * @param sb the builder to append to
+     * @return the same builder
+     */
+    public StringBuilder encode(CharSequence cs, StringBuilder sb) {
+        if (cs != null) {
+            encode(cs, 0, cs.length(), sb, null);
+        }
+        return sb;
+    }
+
+    /**
+     * Url encode a range of the text into a builder
+     *
+     * @param cs    text to encode
+     * @param start start of the range, inclusive
+     * @param end   end of the range, exclusive
+     * @param sb    the builder to append to
+     * @return the same builder
+     */
+    public StringBuilder encode(CharSequence cs, int start, int end, StringBuilder sb) {
+        encode(cs, start, end, sb, null);
+        return sb;
+    }
+
+    /**
+     * Url encode into a buffer, as ASCII bytes
+     *
+     * @param cs  text to encode, null writes nothing
+     * @param out the buffer to write to, from its position
+     * @return the same buffer
+     * @throws java.nio.BufferOverflowException if out runs out of room, what fitted is written
+     */
+    public ByteBuffer encode(CharSequence cs, ByteBuffer out) {
+        if (cs != null) {
+            encode(cs, 0, cs.length(), null, out);
+        }
+        return out;
+    }
+
+    /**
+     * exactly one of sb and out is not null
+     */
+    private void encode(CharSequence cs, int start, int end, StringBuilder sb, ByteBuffer out) {
+        int i = start;
+        while (i < end) {
+            char c = cs.charAt(i);
+            if (isSafe(c)) {
+                int safeEnd = i + 1;
+                while (safeEnd < end && isSafe(cs.charAt(safeEnd))) {
+                    safeEnd++;
+                }
+                if (sb != null) {
+                    sb.append(cs, i, safeEnd);
+                } else {
+                    for (int k = i; k < safeEnd; k++) {
+                        out.put((byte) cs.charAt(k));
+                    }
+                }
+                i = safeEnd;
+            } else if (c == ' ') {
+                put(sb, out, '+');
+                i++;
+            } else {
+                //a run of unsafe characters is converted to bytes at once, as URLEncoder does
+                int runEnd = i + 1;
+                while (runEnd < end && (c = cs.charAt(runEnd)) != ' ' && !isSafe(c)) {
+                    runEnd++;
+                }
+                if (utf8) {
+                    encodeUtf8(cs, i, runEnd, sb, out);
+                } else {
+                    ByteBuffer bytes = charset.encode(CharBuffer.wrap(cs, i, runEnd));
+                    while (bytes.hasRemaining()) {
+                        escape(sb, out, bytes.get());
+                    }
+                }
+                i = runEnd;
+            }
+        }
+    }
+
+    /**
+     * same bytes as String.getBytes(UTF_8), a lone surrogate becomes '?'
+     */
+    private static void encodeUtf8(CharSequence cs, int start, int end, StringBuilder sb, ByteBuffer out) {
+        for (int i = start; i < end; i++) {
+            char c = cs.charAt(i);
+            if (c < 0x80) {
+                escape(sb, out, c);
+            } else if (c < 0x800) {
+                escape(sb, out, 0xC0 | c >> 6);
+                escape(sb, out, 0x80 | c & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                char low;
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(low = cs.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, low);
+                    escape(sb, out, 0xF0 | cp >> 18);
+                    escape(sb, out, 0x80 | cp >> 12 & 0x3F);
+                    escape(sb, out, 0x80 | cp >> 6 & 0x3F);
+                    escape(sb, out, 0x80 | cp & 0x3F);
+                    i++;
+                } else {
+                    escape(sb, out, '?');
+                }
+            } else {
+                escape(sb, out, 0xE0 | c >> 12);
+                escape(sb, out, 0x80 | c >> 6 & 0x3F);
+                escape(sb, out, 0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private static void escape(StringBuilder sb, ByteBuffer out, int b) {
+        put(sb, out, '%');
+        put(sb, out, HEX[b >> 4 & 0xF]);
+        put(sb, out, HEX[b & 0xF]);
+    }
+
+    private static void put(StringBuilder sb, ByteBuffer out, char c) {
+        if (sb != null) {
+            sb.append(c);
+        } else {
+            out.put((byte) c);
+        }
+    }
+
+    /**
+     * Url decode a string
+     *
+     * @param s String to decode
+     * @return decoded string, the same instance if nothing is escaped. null if s is null
+     */
+    public String decode(String s) {
+        if (s == null) {
+            return null;
+        }
+        int length = s.length();
+        int i = 0;
+        for (char c; i < length && (c = s.charAt(i)) != '%' && c != '+'; ) {
+            i++;
+        }
+        if (i == length) {
+            return s;
+        }
+        StringBuilder sb = ScratchBuffers.builder(length);
+        try {
+            sb.append(s, 0, i);
+            decode(s, i, length, sb);
+            return sb.toString();
+        } finally {
+            ScratchBuffers.release(sb);
+        }
+    }
+
+    /**
+     * Url decode a range of the text into a builder
+     *
+     * @param cs    text to decode
+     * @param start start of the range, inclusive
+     * @param end   end of the range, exclusive
+     * @param sb    the builder to append to
+     * @return the same builder
+     */
+    public StringBuilder decode(CharSequence cs, int start, int end, StringBuilder sb) {
+        int i = start;
+        while (i < end) {
+            char c = cs.charAt(i);
+            int b;
+            if (c == '+') {
+                sb.append(' ');
+                i++;
+            } else if (c != '%') {
+                int literalEnd = i + 1;
+                while (literalEnd < end && (c = cs.charAt(literalEnd)) != '%' && c != '+') {
+                    literalEnd++;
+                }
+                sb.append(cs, i, literalEnd);
+                i = literalEnd;
+            } else if ((b = hexByte(cs, i, end)) < 0) {
+                sb.append('%');
+                i++;
+            } else if (b < 0x80 && asciiCompatible || b < 0x100 && latin1) {
+                //a byte which is a char of its own
+                sb.append((char) b);
+                i += 3;
+            } else {
+                int length = utf8 ? decodeUtf8(cs, i, end, sb) : 0;
+                i = length > 0 ? i + length : decodeRun(cs, i, end, sb);
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * decode a single well formed UTF-8 sequence of escapes
+     *
+     * @return chars consumed, 0 if not well formed, to be left to the charset
+     */
+    private static int decodeUtf8(CharSequence cs, int i, int end, StringBuilder sb) {
+        int b = hexByte(cs, i, end);
+        int cp;
+        int n;
+        if (b >= 0xC2 && b < 0xE0) {
+            cp = b & 0x1F;
+            n = 2;
+        } else if (b >= 0xE0 && b < 0xF0) {
+            cp = b & 0x0F;
+            n = 3;
+        } else if (b >= 0xF0 && b < 0xF5) {
+            cp = b & 0x07;
+            n = 4;
+        } else {
+            return 0;
+        }
+        for (int k = 1; k < n; k++) {
+            int at = i + 3 * k;
+            int next = at < end && cs.charAt(at) == '%' ? hexByte(cs, at, end) : -1;
+            if ((next & 0xC0) != 0x80) {
+                return 0;
+            }
+            cp = cp << 6 | next & 0x3F;
+        }
+        //overlong, surrogate or out of range
+        if (n == 3 && (cp < 0x800 || Character.isSurrogate((char) cp)) || n == 4 && (cp < 0x10000 || cp > Character.MAX_CODE_POINT)) {
+            return 0;
+        }
+        sb.appendCodePoint(cp);
+        return 3 * n;
+    }
+
+    /**
+     * decode the run of escapes at i with the charset, as URLDecoder does
+     *
+     * @return index after the run
+     */
+    private int decodeRun(CharSequence cs, int i, int end, StringBuilder sb) {
+        byte[] bytes = ScratchBuffers.bytes((end - i) / 3);
+        try {
+            int count = 0;
+            int b;
+            while (i < end && cs.charAt(i) == '%' && (b = hexByte(cs, i, end)) >= 0) {
+                bytes[count++] = (byte) b;
+                i += 3;
+            }
+            sb.append(new String(bytes, 0, count, charset));
+            return i;
+        } finally {
+            ScratchBuffers.release(bytes);
+        }
+    }
+
+    /**
+     * @return the byte of the "%XX" at i, -1 if not a valid escape
+     */
+    private static int hexByte(CharSequence cs, int i, int end) {
+        if (i + 2 >= end) {
+            return -1;
+        }
+        int hi = hexDigit(cs.charAt(i + 1));
+        int lo = hexDigit(cs.charAt(i + 2));
+        return hi < 0 || lo < 0 ? -1 : hi << 4 | lo;
+    }
+
+    /**
+     * ASCII hex digits only, unlike Character.digit
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}